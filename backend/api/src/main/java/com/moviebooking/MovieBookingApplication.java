@@ -3,9 +3,11 @@ package com.moviebooking;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaRepositories(basePackages = "com.moviebooking.repository.supabase")
+@EnableScheduling
 public class MovieBookingApplication {
 
     public static void main(String[] args) {
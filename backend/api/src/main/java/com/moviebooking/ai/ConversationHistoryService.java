@@ -0,0 +1,197 @@
+package com.moviebooking.ai;
+
+import com.moviebooking.entity.supabase.ConversationLog;
+import com.moviebooking.entity.supabase.ConversationMessage;
+import com.moviebooking.repository.supabase.ConversationLogRepository;
+import com.moviebooking.repository.supabase.ConversationMessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Conversation History Service
+ * Chat messages are appended to conversation_messages under (session_id, seq), so a turn costs
+ * two inserts however long the conversation is. Prompts carry the last few turns verbatim under a
+ * token budget, with everything older folded into a rolling summary.
+ * conversation_logs keeps one row of session metadata; messages left in its legacy jsonb
+ * column are moved over at startup.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConversationHistoryService {
+
+    private static final int MAX_APPEND_ATTEMPTS = 3;
+    private static final int MIGRATION_BATCH = 100;
+
+    private final ConversationLogRepository conversationLogRepository;
+    private final ConversationMessageRepository conversationMessageRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConversationSummaryService summaryService;
+
+    @Value("${chat.history-max-messages:40}")
+    private int historyMaxMessages;
+
+    @Value("${chat.history-verbatim-turns:4}")
+    private int verbatimTurns;
+
+    @Value("${chat.history-token-budget:1500}")
+    private int historyTokenBudget;
+
+    /**
+     * What a prompt carries of the past: the rolling summary, if any, and the most recent
+     * messages oldest first
+     */
+    public record PromptHistory(String summary, List<ConversationMessage> messages) {}
+
+    /**
+     * The last few turns verbatim, within the token budget together with the summary. Older messages
+     * not yet covered by the summary are handed to the summarizer for the next turn.
+     */
+    public PromptHistory promptHistory(String sessionId) {
+        ConversationSummaryService.Summary summary = summaryService.getSummary(sessionId);
+        int budget = historyTokenBudget - TokenEstimator.estimateMessage(summary.text());
+
+        List<ConversationMessage> tail = conversationMessageRepository.findTailAfter(
+                sessionId, summary.throughSeq(), PageRequest.of(0, historyMaxMessages));
+        List<ConversationMessage> window = new ArrayList<>();
+        int tokens = 0;
+        int turns = 0;
+        for (ConversationMessage m : tail) {  // newest first
+            int cost = TokenEstimator.estimateMessage(m.getContent());
+            if (turns >= verbatimTurns || tokens + cost > budget) {
+                break;
+            }
+            window.add(m);
+            tokens += cost;
+            if (m.getRole() == ConversationLog.MessageRole.USER) {
+                turns++;
+            }
+        }
+        Collections.reverse(window);
+
+        // Anything between the summary and the window (or beyond the tail we read) needs folding in
+        if (tail.size() > window.size() || tail.size() == historyMaxMessages) {
+            long unsummarizedThrough = window.isEmpty() ? tail.get(0).getSeq() : window.get(0).getSeq() - 1;
+            if (unsummarizedThrough > summary.throughSeq()) {
+                summaryService.requestRefresh(sessionId, unsummarizedThrough);
+            }
+        }
+        return new PromptHistory(summary.text(), window);
+    }
+
+    /**
+     * Append one turn in a single batch. Two tabs on one session may both claim the next seq;
+     * the loser hits the primary key and retries after the winner's messages.
+     *
+     * @param answeredBy what produced assistantMessage, stored on the assistant row
+     */
+    public void appendTurn(String sessionId, Long userId, String userMessage, String assistantMessage,
+                           ConversationMessage.AnswerSource answeredBy) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (conversationLogRepository.touch(sessionId, userId, now) == 0) {
+                        conversationLogRepository.save(ConversationLog.builder()
+                                .sessionId(sessionId)
+                                .userId(userId)
+                                .createdAt(now)
+                                .lastUpdatedAt(now)
+                                .build());
+                    }
+                    long seq = conversationMessageRepository.findLastSeq(sessionId);
+                    List<ConversationMessage> batch = new ArrayList<>(2);
+                    batch.add(message(sessionId, ++seq, ConversationLog.MessageRole.USER, userMessage, null, now));
+                    if (assistantMessage != null) {
+                        batch.add(message(sessionId, ++seq, ConversationLog.MessageRole.ASSISTANT, assistantMessage,
+                                answeredBy, now));
+                    }
+                    conversationMessageRepository.saveAllAndFlush(batch);
+                });
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_APPEND_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Concurrent append on session {}, retrying", sessionId);
+            }
+        }
+    }
+
+    /**
+     * Move messages still stored in conversation_logs.messages into conversation_messages.
+     * Each log is moved and emptied in one transaction, so a restart never duplicates messages;
+     * legacy messages are numbered before any that were already appended for the session.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyLogs() {
+        int migrated = 0;
+        String afterId = "";
+        try {
+            List<ConversationLog> batch;
+            do {
+                batch = conversationLogRepository.findWithLegacyMessages(afterId, MIGRATION_BATCH);
+                for (ConversationLog legacy : batch) {
+                    afterId = legacy.getId();
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> migrate(legacy));
+                        migrated++;
+                    } catch (Exception e) {
+                        log.error("Failed to migrate conversation {}: {}", legacy.getSessionId(), e.getMessage());
+                    }
+                }
+            } while (batch.size() == MIGRATION_BATCH);
+        } catch (Exception e) {
+            log.error("Failed to migrate legacy conversation logs: {}", e.getMessage());
+        }
+        if (migrated > 0) {
+            log.info("Migrated {} conversation logs to conversation_messages", migrated);
+        }
+    }
+
+    private void migrate(ConversationLog legacy) {
+        List<ConversationLog.Message> messages = legacy.getMessages();
+        long seq = conversationMessageRepository.findFirstSeq(legacy.getSessionId()) - messages.size();
+        List<ConversationMessage> rows = new ArrayList<>(messages.size());
+        for (ConversationLog.Message m : messages) {
+            rows.add(ConversationMessage.builder()
+                    .sessionId(legacy.getSessionId())
+                    .seq(seq++)
+                    .role(m.getRole())
+                    .content(m.getContent())
+                    .functionCalls(m.getFunctionCalls())
+                    .createdAt(m.getTimestamp())
+                    .build());
+        }
+        conversationMessageRepository.saveAll(rows);
+        legacy.setMessages(new ArrayList<>());
+        conversationLogRepository.save(legacy);
+    }
+
+    private static ConversationMessage message(String sessionId, long seq, ConversationLog.MessageRole role,
+                                               String content, ConversationMessage.AnswerSource answeredBy,
+                                               LocalDateTime at) {
+        return ConversationMessage.builder()
+                .sessionId(sessionId)
+                .seq(seq)
+                .role(role)
+                .content(content)
+                .answeredBy(answeredBy)
+                .createdAt(at)
+                .build();
+    }
+}
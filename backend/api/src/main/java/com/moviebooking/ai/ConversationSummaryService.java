@@ -0,0 +1,179 @@
+package com.moviebooking.ai;
+
+import com.moviebooking.entity.supabase.ConversationLog;
+import com.moviebooking.entity.supabase.ConversationMessage;
+import com.moviebooking.repository.supabase.ConversationLogRepository;
+import com.moviebooking.repository.supabase.ConversationMessageRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conversation Summary Service
+ * Folds messages that have slid out of the prompt window into a rolling per-session summary.
+ * Refreshes run in the background, one at a time per session, so a turn never waits on the
+ * extra model call; until a refresh lands the prompt simply goes without those messages.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConversationSummaryService {
+
+    // Summarized-through marker for sessions without a summary; migrated messages may have seq <= 0
+    public static final long NO_SUMMARY_SEQ = Long.MIN_VALUE;
+
+    private static final int MAX_MESSAGES_PER_REFRESH = 100;
+    private static final int QUEUE_CAPACITY = 64;
+
+    private static final String SUMMARY_PROMPT = """
+        You maintain a running summary of a conversation between a moviegoer and a cinema booking concierge.
+        Merge the new messages into the existing summary. Keep what matters for the rest of the conversation:
+        movies, cities, theaters, dates, showtimes, formats, seat preferences, party size, budget and anything
+        the user has decided or ruled out. Drop greetings and chit-chat. Write plain sentences, no headings.
+        """;
+
+    private final ChatClient.Builder chatClientBuilder;
+    private final ConversationLogRepository conversationLogRepository;
+    private final ConversationMessageRepository conversationMessageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LlmGateway llmGateway;
+
+    @Value("${chat.summary-max-tokens:300}")
+    private int summaryMaxTokens;
+
+    private ChatClient chatClient;
+    private ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder refreshed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Rolling summary of a session and the last message seq it covers
+     */
+    public record Summary(String text, long throughSeq) {
+        static final Summary NONE = new Summary(null, NO_SUMMARY_SEQ);
+    }
+
+    @PostConstruct
+    void start() {
+        // No tools: summarizing must not trigger catalog lookups
+        chatClient = chatClientBuilder.build();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                r -> {
+                    Thread t = new Thread(r, "chat-summary-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    public Summary getSummary(String sessionId) {
+        List<Object[]> rows = conversationLogRepository.findSummary(sessionId);
+        if (rows.isEmpty()) {
+            return Summary.NONE;
+        }
+        Object[] row = rows.get(0);
+        Long throughSeq = (Long) row[1];
+        return throughSeq == null ? Summary.NONE : new Summary((String) row[0], throughSeq);
+    }
+
+    /**
+     * Ask for every message up to throughSeq to be folded into the summary. Ignored while a refresh
+     * for the session is already queued or running; the next turn asks again if still behind.
+     */
+    public void requestRefresh(String sessionId, long throughSeq) {
+        if (!inFlight.add(sessionId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh(sessionId, throughSeq);
+                    refreshed.increment();
+                } catch (Exception e) {
+                    failed.increment();
+                    log.warn("Failed to refresh summary for session {}: {}", sessionId, e.getMessage());
+                } finally {
+                    inFlight.remove(sessionId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(sessionId);
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        return Map.of(
+                "summariesRefreshed", refreshed.sum(),
+                "summaryFailures", failed.sum(),
+                "summaryQueueDepth", executor.getQueue().size()
+        );
+    }
+
+    private void refresh(String sessionId, long throughSeq) {
+        Summary current = getSummary(sessionId);
+        if (current.throughSeq() >= throughSeq) {
+            return;
+        }
+        List<ConversationMessage> messages = conversationMessageRepository.findRange(
+                sessionId, current.throughSeq(), throughSeq, PageRequest.of(0, MAX_MESSAGES_PER_REFRESH));
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        StringBuilder input = new StringBuilder();
+        input.append("Existing summary:\n")
+                .append(current.text() != null ? current.text() : "(none)")
+                .append("\n\nNew messages:\n");
+        for (ConversationMessage m : messages) {
+            input.append(m.getRole() == ConversationLog.MessageRole.USER ? "User: " : "Concierge: ")
+                    .append(m.getContent())
+                    .append('\n');
+        }
+
+        // Through the gateway like chat turns, so summaries share the limit and stop while the circuit is open
+        String text = llmGateway.call(() -> chatClient.prompt()
+                .system(SUMMARY_PROMPT + "Stay under " + summaryMaxTokens * 3 / 4 + " words.")
+                .user(input.toString())
+                .call()
+                .content());
+        String summary = truncate(text != null ? text.trim() : "", summaryMaxTokens);
+        long newThroughSeq = messages.get(messages.size() - 1).getSeq();
+
+        transactionTemplate.executeWithoutResult(status -> conversationLogRepository.updateSummary(
+                sessionId, summary, newThroughSeq, current.throughSeq(), NO_SUMMARY_SEQ));
+    }
+
+    // Hard cap in case the model ignores the length instruction
+    private static String truncate(String text, int maxTokens) {
+        if (TokenEstimator.estimate(text) <= maxTokens) {
+            return text;
+        }
+        int end = Math.min(text.length(), maxTokens * 4);
+        while (end > 0 && TokenEstimator.estimate(text.substring(0, end)) > maxTokens) {
+            end = end * 9 / 10;
+        }
+        return text.substring(0, end);
+    }
+}
@@ -2,7 +2,9 @@ package com.moviebooking.ai;
 
 import com.moviebooking.ai.tools.MovieConciergeTools;
 import com.moviebooking.entity.supabase.ConversationLog;
-import com.moviebooking.repository.supabase.ConversationLogRepository;
+import com.moviebooking.entity.supabase.ConversationMessage;
+import com.moviebooking.entity.supabase.ConversationMessage.AnswerSource;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
@@ -12,12 +14,21 @@ import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 @RequiredArgsConstructor
@@ -25,9 +36,15 @@ import java.util.UUID;
 public class GeminiChatService {
 
     private final ChatClient.Builder chatClientBuilder;
-    private final ConversationLogRepository conversationLogRepository;
+    private final ConversationHistoryService historyService;
+    private final ConversationSummaryService summaryService;
+    private final IntentRouter intentRouter;
+    private final LlmGateway llmGateway;
     private final MovieConciergeTools conciergeTools;
 
+    // Must match how the frontend joins a partial reply and the error note (chatService.streamMessage)
+    private static final String INTERRUPTION_SEPARATOR = "\n\n";
+
     private static final String SYSTEM_PROMPT = """
         You are a premium AI movie concierge for an exclusive cinema booking platform. 
         Your name is "CineAI" and you're sophisticated, helpful, and knowledgeable about films.
@@ -51,36 +68,22 @@ public class GeminiChatService {
         Format your responses in a clean, readable way. Use bullet points for lists.
         """;
 
-    public String chat(String sessionId, Long userId, String userMessage) {
-        log.info("Processing chat for session: {}, user: {}", sessionId, userId);
+    private ChatClient chatClient;
 
-        // Get or create conversation log
-        ConversationLog conversation = conversationLogRepository.findBySessionId(sessionId)
-                .orElseGet(() -> ConversationLog.builder()
-                        .sessionId(sessionId)
-                        .userId(userId)
-                        .createdAt(LocalDateTime.now())
-                        .messages(new ArrayList<>())
-                        .build());
-
-        // Build message history
-        List<Message> messages = new ArrayList<>();
-        messages.add(new SystemMessage(SYSTEM_PROMPT));
-        
-        // Add previous messages from conversation
-        for (ConversationLog.Message msg : conversation.getMessages()) {
-            if (msg.getRole() == ConversationLog.MessageRole.USER) {
-                messages.add(new UserMessage(msg.getContent()));
-            } else if (msg.getRole() == ConversationLog.MessageRole.ASSISTANT) {
-                messages.add(new AssistantMessage(msg.getContent()));
-            }
-        }
-        
-        // Add current user message
-        messages.add(new UserMessage(userMessage));
+    private final LongAdder turns = new LongAdder();
+    private final LongAdder fastPathTurns = new LongAdder();
+    private final LongAdder estimatedPromptTokens = new LongAdder();
+    private final AtomicLong maxEstimatedPromptTokens = new AtomicLong();
+    private final LongAdder reportedTurns = new LongAdder();
+    private final LongAdder reportedPromptTokens = new LongAdder();
+    private long lastLoggedTurns;  // scheduler thread only
 
-        // Create chat client with tools
-        ChatClient chatClient = chatClientBuilder
+    /**
+     * The client and its tool registrations are immutable, so one instance serves every request
+     */
+    @PostConstruct
+    void initChatClient() {
+        chatClient = chatClientBuilder
                 .defaultFunctions(
                         "searchMovies",
                         "getMovieDetails",
@@ -92,48 +95,205 @@ public class GeminiChatService {
                         "recommendExperience"
                 )
                 .build();
+    }
+
+    public String chat(String sessionId, Long userId, String userMessage) {
+        log.info("Processing chat for session: {}, user: {}", sessionId, userId);
+
+        Optional<String> fastAnswer = fastPath(sessionId, userId, userMessage);
+        if (fastAnswer.isPresent()) {
+            return fastAnswer.get();
+        }
+
+        Prompt prompt = buildPrompt(sessionId, userMessage);
 
         try {
             // Get AI response
-            Prompt prompt = new Prompt(messages);
-            ChatResponse response = chatClient.prompt(prompt).call().chatResponse();
+            ChatResponse response = llmGateway.call(() -> chatClient.prompt(prompt).call().chatResponse());
             String assistantMessage = response.getResult().getOutput().getText();
+            recordReportedUsage(response);
 
-            // Log messages
-            conversation.getMessages().add(ConversationLog.Message.builder()
-                    .role(ConversationLog.MessageRole.USER)
-                    .content(userMessage)
-                    .timestamp(LocalDateTime.now())
-                    .build());
-            
-            conversation.getMessages().add(ConversationLog.Message.builder()
-                    .role(ConversationLog.MessageRole.ASSISTANT)
-                    .content(assistantMessage)
-                    .timestamp(LocalDateTime.now())
-                    .build());
-            
-            conversation.setLastUpdatedAt(LocalDateTime.now());
-            conversationLogRepository.save(conversation);
-
+            recordTurn(sessionId, userId, userMessage, assistantMessage, AnswerSource.MODEL);
             return assistantMessage;
         } catch (Exception e) {
             log.error("AI chat error for session {}: {}", sessionId, e.getMessage());
-            
-            // Save user message even if AI fails
-            conversation.getMessages().add(ConversationLog.Message.builder()
-                    .role(ConversationLog.MessageRole.USER)
-                    .content(userMessage)
-                    .timestamp(LocalDateTime.now())
-                    .build());
-            conversation.setLastUpdatedAt(LocalDateTime.now());
-            conversationLogRepository.save(conversation);
-            
-            // Return a friendly message based on the error type
-            if (e.getMessage() != null && e.getMessage().contains("429")) {
-                return "🎬 I'm experiencing high demand right now. Please try again in a few seconds!";
+
+            // Log the fallback the user is shown, so the history matches the conversation they saw
+            String fallback = unavailableAnswer(userMessage, e);
+            recordTurn(sessionId, userId, userMessage, fallback, AnswerSource.FALLBACK);
+            return fallback;
+        }
+    }
+
+    /**
+     * Stream the reply as it is generated. The turn is logged once the stream ends, however it ends,
+     * with exactly the text that was emitted: the full reply, the fallback answer, or whatever was
+     * streamed before a failure or the client going away.
+     */
+    public Flux<String> chatStream(String sessionId, Long userId, String userMessage) {
+        log.info("Streaming chat for session: {}, user: {}", sessionId, userId);
+
+        Optional<String> fastAnswer = fastPath(sessionId, userId, userMessage);
+        if (fastAnswer.isPresent()) {
+            return Flux.just(fastAnswer.get());
+        }
+
+        Prompt prompt = buildPrompt(sessionId, userMessage);
+        // Appended on the stream's thread but read from whichever thread cancels, so synchronized
+        StringBuffer reply = new StringBuffer();
+        AtomicBoolean fellBack = new AtomicBoolean();
+        AtomicReference<Throwable> interruptedBy = new AtomicReference<>();
+
+        return llmGateway.stream(() -> chatClient.prompt(prompt).stream().content())
+                // Saving the log and writing to the client both block, so keep them off the HTTP client threads
+                .publishOn(Schedulers.boundedElastic())
+                .doOnError(e -> log.error("AI chat stream error for session {}: {}", sessionId, e.getMessage()))
+                // Nothing sent yet, so the client can still get the deterministic fallback as the reply
+                .onErrorResume(e -> {
+                    if (!reply.isEmpty()) {
+                        interruptedBy.set(e);
+                        return Flux.error(e);
+                    }
+                    fellBack.set(true);
+                    return Flux.just(unavailableAnswer(userMessage, e));
+                })
+                // After the resume, so a fallback answer is captured like any streamed text
+                .doOnNext(reply::append)
+                .doFinally(signal -> {
+                    Throwable interruption = interruptedBy.get();
+                    if (interruption != null) {
+                        // The client keeps the partial text and shows the error note under it; log the same
+                        recordTurn(sessionId, userId, userMessage, interruptedReply(reply.toString(), interruption),
+                                AnswerSource.FALLBACK);
+                    } else {
+                        recordTurn(sessionId, userId, userMessage, reply.isEmpty() ? null : reply.toString(),
+                                fellBack.get() ? AnswerSource.FALLBACK : AnswerSource.MODEL);
+                    }
+                });
+    }
+
+    /**
+     * What the client ends up showing for a stream that failed after some text was sent
+     */
+    public static String interruptedReply(String partial, Throwable e) {
+        return partial + INTERRUPTION_SEPARATOR + fallbackMessage(e);
+    }
+
+    /**
+     * Clear-cut questions are answered from the tools directly; the turn is logged like any other
+     */
+    private Optional<String> fastPath(String sessionId, Long userId, String userMessage) {
+        Optional<String> answer = intentRouter.answer(userMessage);
+        if (answer.isPresent()) {
+            fastPathTurns.increment();
+            recordTurn(sessionId, userId, userMessage, answer.get(), AnswerSource.FAST_PATH);
+        }
+        return answer;
+    }
+
+    private Prompt buildPrompt(String sessionId, String userMessage) {
+        ConversationHistoryService.PromptHistory history = historyService.promptHistory(sessionId);
+        List<Message> messages = new ArrayList<>();
+        messages.add(new SystemMessage(SYSTEM_PROMPT));
+        int tokens = TokenEstimator.estimateMessage(SYSTEM_PROMPT);
+
+        // Older turns arrive as a summary rather than verbatim
+        if (history.summary() != null && !history.summary().isBlank()) {
+            String summary = "Summary of the conversation so far:\n" + history.summary();
+            messages.add(new SystemMessage(summary));
+            tokens += TokenEstimator.estimateMessage(summary);
+        }
+
+        // Add recent messages from the conversation
+        for (ConversationMessage msg : history.messages()) {
+            if (msg.getRole() == ConversationLog.MessageRole.USER) {
+                messages.add(new UserMessage(msg.getContent()));
+            } else if (msg.getRole() == ConversationLog.MessageRole.ASSISTANT) {
+                messages.add(new AssistantMessage(msg.getContent()));
+            } else {
+                continue;
             }
-            return "🎬 I'm having a temporary issue connecting to my brain. Please try again in a moment!";
+            tokens += TokenEstimator.estimateMessage(msg.getContent());
+        }
+
+        // Add current user message
+        messages.add(new UserMessage(userMessage));
+        tokens += TokenEstimator.estimateMessage(userMessage);
+
+        turns.increment();
+        estimatedPromptTokens.add(tokens);
+        maxEstimatedPromptTokens.accumulateAndGet(tokens, Math::max);
+        return new Prompt(messages);
+    }
+
+    /**
+     * Share of turns answered without the model, and prompt size per model turn: local estimates
+     * for every turn, plus the provider's own count where the response reports usage (non-streamed turns)
+     */
+    public Map<String, Object> metrics() {
+        long turnCount = turns.sum();
+        long fastCount = fastPathTurns.sum();
+        long reported = reportedTurns.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("fastPathTurns", fastCount);
+        metrics.put("fastPathRatio", fastCount + turnCount == 0 ? 0.0
+                : Math.round(1000.0 * fastCount / (fastCount + turnCount)) / 1000.0);
+        metrics.put("modelTurns", turnCount);
+        metrics.put("avgEstimatedPromptTokens", turnCount == 0 ? 0 : estimatedPromptTokens.sum() / turnCount);
+        metrics.put("maxEstimatedPromptTokens", maxEstimatedPromptTokens.get());
+        metrics.put("avgReportedPromptTokens", reported == 0 ? 0 : reportedPromptTokens.sum() / reported);
+        metrics.putAll(summaryService.metrics());
+        return metrics;
+    }
+
+    @Scheduled(fixedDelayString = "${chat.metrics-log-ms:60000}")
+    public void logMetrics() {
+        long turnCount = turns.sum() + fastPathTurns.sum();
+        if (turnCount != lastLoggedTurns) {
+            lastLoggedTurns = turnCount;
+            log.info("Chat prompts: {}", metrics());
+        }
+    }
+
+    /**
+     * Append the user message and, if there is one, the reply with what produced it. A failed write
+     * is logged rather than thrown so the user still gets the answer.
+     */
+    private void recordTurn(String sessionId, Long userId, String userMessage, String assistantMessage,
+                            AnswerSource answeredBy) {
+        try {
+            historyService.appendTurn(sessionId, userId, userMessage, assistantMessage, answeredBy);
+        } catch (Exception e) {
+            log.error("Failed to save chat turn for session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    private void recordReportedUsage(ChatResponse response) {
+        if (response.getMetadata() == null || response.getMetadata().getUsage() == null) {
+            return;
+        }
+        Long promptTokens = response.getMetadata().getUsage().getPromptTokens();
+        if (promptTokens != null && promptTokens > 0) {
+            reportedTurns.increment();
+            reportedPromptTokens.add(promptTokens);
+        }
+    }
+
+    /**
+     * When the model fails or the gateway turns the call away, answer from the tools if the
+     * question is recognisable at all, otherwise with a friendly message
+     */
+    private String unavailableAnswer(String userMessage, Throwable e) {
+        return intentRouter.fallbackAnswer(userMessage).orElseGet(() -> fallbackMessage(e));
+    }
+
+    // Return a friendly message based on the error type
+    public static String fallbackMessage(Throwable e) {
+        if (e instanceof LlmGateway.LlmUnavailableException
+                || (e.getMessage() != null && e.getMessage().contains("429"))) {
+            return "🎬 I'm experiencing high demand right now. Please try again in a few seconds!";
         }
+        return "🎬 I'm having a temporary issue connecting to my brain. Please try again in a moment!";
     }
 
     public String createNewSession() {
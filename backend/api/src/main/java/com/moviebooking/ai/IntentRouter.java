@@ -0,0 +1,312 @@
+package com.moviebooking.ai;
+
+import com.moviebooking.ai.tools.MovieConciergeTools;
+import com.moviebooking.ai.tools.MovieConciergeTools.*;
+import com.moviebooking.entity.supabase.Movie;
+import com.moviebooking.entity.supabase.ShowSeat;
+import com.moviebooking.service.MovieRankingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Answers clear-cut concierge questions (seat tiers, prices or availability for a given show,
+ * what's showing, best format for a genre) straight from the tool functions or the movie ranking
+ * with a fixed template, skipping the model round trip. Anything ambiguous, long, or leaning on
+ * earlier turns scores below the confidence threshold and goes to the model as before.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IntentRouter {
+
+    private static final int MAX_FAST_PATH_LENGTH = 120;
+    private static final int MAX_LISTED_MOVIES = 8;
+    private static final double FALLBACK_MIN_CONFIDENCE = 0.5;
+
+    private static final Pattern SHOW_ID = Pattern.compile(
+            "\\b[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\b");
+    private static final Pattern EXPLAIN_TIERS = Pattern.compile(
+            "\\b(explain|difference|differences|compare|what are|tell me about)\\b.*\\b(seat )?(tiers?|seat types|seat classes|seating options)\\b");
+    private static final Pattern TIER_NAME = Pattern.compile("\\b(classic|prime|premium|vip)\\b");
+    private static final Pattern COMPARISON = Pattern.compile("\\b(vs|versus|difference|compare|better)\\b");
+    private static final Pattern PRICING = Pattern.compile("\\b(price|prices|pricing|cost|costs|how much|rates?)\\b");
+    private static final Pattern AVAILABILITY = Pattern.compile(
+            "\\b(available|availability|seats? left|sold out|free seats|open seats|any seats)\\b");
+    private static final Pattern NOW_SHOWING = Pattern.compile(
+            "\\b(now showing|what'?s (showing|playing|on)|what is (showing|playing|on)|(what|which|any|show me)\\s+([\\w-]+\\s+)?(movies|films)|movies (showing|playing))\\b");
+    private static final Pattern RECOMMEND_FORMAT = Pattern.compile(
+            "\\b(best|which|recommend|recommended|ideal|suggest)\\b.*\\b(format|experience|imax|4dx|3d|screen)\\b");
+
+    // Place, time or booking details the templates cannot honour
+    private static final Pattern EXTRA_CONSTRAINT = Pattern.compile(
+            "\\b(in|at|near|around|after|before)\\s+(?!(the |this )?(movie|film|show)\\b)\\w+|\\b\\d{1,2}\\s*(am|pm)\\b|\\bbook\\w*\\b");
+    // Listing filters the now-showing template does not apply
+    private static final Pattern LISTING_FILTER = Pattern.compile(
+            "\\b(imax|4dx|3d|2d|dolby|atmos|language|hindi|english|tamil|telugu|malayalam|kannada)\\b");
+    // Other days: the listing template shows what is released as of today
+    private static final Pattern TEMPORAL = Pattern.compile(
+            "\\b(tomorrow|weekend|this week|next week|"
+            + "monday|tuesday|wednesday|thursday|friday|saturday|sunday)\\b");
+    // Follow-ups that depend on earlier turns
+    private static final Pattern CONTEXT_REFERENCE = Pattern.compile(
+            "\\b(it|that|this one|those|them|same|instead|also|another|else|again)\\b");
+
+    // Word-bounded pattern per genre name or alias, checked in order
+    private static final Map<Pattern, String> GENRES = new LinkedHashMap<>();
+
+    static {
+        for (String genre : List.of("Action", "Adventure", "Sci-Fi", "Horror", "Thriller", "Animation", "Comedy",
+                "Family", "Drama", "Romance", "Fantasy", "Mystery", "Crime")) {
+            GENRES.put(genrePattern(genre.toLowerCase(Locale.ROOT)), genre);
+        }
+        GENRES.put(genrePattern("science fiction"), "Sci-Fi");
+        GENRES.put(genrePattern("scifi"), "Sci-Fi");
+    }
+
+    private final MovieConciergeTools tools;
+    private final MovieRankingService movieRankingService;
+
+    @Value("${chat.fast-path-enabled:true}")
+    private boolean enabled;
+
+    @Value("${chat.fast-path-min-confidence:0.8}")
+    private double minConfidence;
+
+    public enum Intent {
+        EXPLAIN_TIERS, SEAT_PRICING, SEAT_AVAILABILITY, NOW_SHOWING, RECOMMEND_FORMAT
+    }
+
+    /**
+     * Best intent for a message, its confidence in [0, 1] and the values it needs (showId, genre)
+     */
+    public record Match(Intent intent, double confidence, Map<String, String> slots) {}
+
+    /**
+     * Classify without calling any tool; null when no intent matches at all
+     */
+    public Match classify(String message) {
+        if (message == null || message.isBlank()) {
+            return null;
+        }
+        String text = message.toLowerCase(Locale.ROOT).trim();
+        String showId = find(SHOW_ID, text);
+        String genre = findGenre(text);
+
+        List<Match> candidates = new ArrayList<>();
+        if (EXPLAIN_TIERS.matcher(text).find()) {
+            candidates.add(new Match(Intent.EXPLAIN_TIERS, 0.95, Map.of()));
+        } else if (countMatches(TIER_NAME, text) >= 2 && COMPARISON.matcher(text).find() && showId == null) {
+            candidates.add(new Match(Intent.EXPLAIN_TIERS, 0.9, Map.of()));
+        }
+        if (showId != null && PRICING.matcher(text).find()) {
+            candidates.add(new Match(Intent.SEAT_PRICING, 0.95, Map.of("showId", showId)));
+        }
+        if (showId != null && AVAILABILITY.matcher(text).find()) {
+            candidates.add(new Match(Intent.SEAT_AVAILABILITY, 0.95, Map.of("showId", showId)));
+        }
+        if (NOW_SHOWING.matcher(text).find()) {
+            candidates.add(new Match(Intent.NOW_SHOWING, 0.9, genre != null ? Map.of("genre", genre) : Map.of()));
+        }
+        if (genre != null && RECOMMEND_FORMAT.matcher(text).find()) {
+            candidates.add(new Match(Intent.RECOMMEND_FORMAT, 0.9, Map.of("genre", genre)));
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        Match best = candidates.stream().max(Comparator.comparingDouble(Match::confidence)).orElseThrow();
+        double confidence = best.confidence();
+        if (candidates.size() > 1) {
+            confidence *= 0.5;  // asks for more than one thing
+        }
+        if (text.length() > MAX_FAST_PATH_LENGTH) {
+            confidence -= 0.3;
+        }
+        // A show id pins the request down; otherwise place/time details and follow-ups need the model
+        String withoutId = showId != null ? text.replace(showId, "") : text;
+        if (EXTRA_CONSTRAINT.matcher(withoutId).find()) {
+            confidence -= 0.4;
+        }
+        if (best.intent() == Intent.NOW_SHOWING && LISTING_FILTER.matcher(text).find()) {
+            confidence -= 0.4;
+        }
+        if (best.intent() == Intent.NOW_SHOWING && TEMPORAL.matcher(text).find()) {
+            confidence -= 0.4;
+        }
+        if (showId == null && CONTEXT_REFERENCE.matcher(text).find()) {
+            confidence -= 0.4;
+        }
+        return new Match(best.intent(), Math.max(0.0, confidence), best.slots());
+    }
+
+    public boolean isConfident(Match match) {
+        return match != null && match.confidence() >= minConfidence;
+    }
+
+    /**
+     * A templated answer when the message is a confident match and its tool succeeds
+     */
+    public Optional<String> answer(String message) {
+        return enabled ? answer(message, minConfidence) : Optional.empty();
+    }
+
+    /**
+     * Best-effort templated answer when the model is unavailable; a weaker match beats an error message.
+     * Off, like the fast path itself, when chat.fast-path-enabled is false.
+     */
+    public Optional<String> fallbackAnswer(String message) {
+        return enabled ? answer(message, FALLBACK_MIN_CONFIDENCE) : Optional.empty();
+    }
+
+    private Optional<String> answer(String message, double threshold) {
+        Match match = classify(message);
+        if (match == null || match.confidence() < threshold) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(render(match));
+        } catch (Exception e) {
+            // Unknown show or a failing lookup: let the model handle it
+            log.debug("Fast path {} failed: {}", match.intent(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private String render(Match match) {
+        return switch (match.intent()) {
+            case EXPLAIN_TIERS -> tools.explainSeatTiers().apply(new EmptyRequest()).strip()
+                    + "\n\nWant me to check prices or seats for a specific show? 🎟️";
+            case SEAT_PRICING -> renderPricing(tools.getSeatPricing().apply(new ShowIdRequest(match.slots().get("showId"))));
+            case SEAT_AVAILABILITY -> renderAvailability(
+                    tools.checkSeatAvailability().apply(new ShowIdRequest(match.slots().get("showId"))));
+            case NOW_SHOWING -> renderMovies(nowShowing(match.slots().get("genre")), match.slots().get("genre"));
+            case RECOMMEND_FORMAT -> renderRecommendation(
+                    tools.recommendExperience().apply(new GenreRequest(match.slots().get("genre"))));
+        };
+    }
+
+    private static String renderPricing(PricingInfo pricing) {
+        StringBuilder sb = new StringBuilder("🎟️ Ticket prices for this ")
+                .append(formatName(pricing.format())).append(" show:\n\n");
+        for (ShowSeat.SeatTier tier : ShowSeat.SeatTier.values()) {
+            BigDecimal price = pricing.tierPrices().get(tier.name());
+            if (price != null) {
+                sb.append("• ").append(capitalize(tier.name())).append(": ₹")
+                        .append(price.stripTrailingZeros().toPlainString()).append('\n');
+            }
+        }
+        return sb.append("\nPrices include the ").append(formatName(pricing.format())).append(" premium.").toString();
+    }
+
+    private static String renderAvailability(SeatAvailability availability) {
+        if (availability.total() == 0) {
+            return null;  // unknown show; the model can ask what was meant
+        }
+        if (availability.available() == 0) {
+            return "This show is sold out. Want me to look for another showtime? 🎬";
+        }
+        StringBuilder sb = new StringBuilder("🎬 ")
+                .append(availability.available()).append(" of ").append(availability.total())
+                .append(" seats are available right now:\n\n");
+        for (ShowSeat.SeatTier tier : ShowSeat.SeatTier.values()) {
+            Long count = availability.byTier().get(tier.name());
+            if (count != null && count > 0) {
+                sb.append("• ").append(capitalize(tier.name())).append(": ").append(count).append('\n');
+            }
+        }
+        return sb.append("\nSeats go quickly, so log in and book soon if you like what you see.").toString();
+    }
+
+    /**
+     * Released movies, newest first, from the in-memory ranking; a genre filters the whole list
+     */
+    private List<Movie> nowShowing(String genre) {
+        if (genre == null) {
+            return movieRankingService.nowShowing(MAX_LISTED_MOVIES);
+        }
+        return movieRankingService.nowShowing(Integer.MAX_VALUE).stream()
+                .filter(m -> m.getGenres() != null && m.getGenres().stream().anyMatch(genre::equalsIgnoreCase))
+                .limit(MAX_LISTED_MOVIES)
+                .toList();
+    }
+
+    private static String renderMovies(List<Movie> movies, String genre) {
+        if (movies.isEmpty()) {
+            return null;  // let the model suggest alternatives
+        }
+        StringBuilder sb = new StringBuilder(genre != null
+                ? "🎬 Here are the " + genre + " movies we're showing:\n\n"
+                : "🎬 Here's what we're showing:\n\n");
+        for (Movie m : movies.subList(0, Math.min(movies.size(), MAX_LISTED_MOVIES))) {
+            sb.append("• **").append(m.getTitle()).append("**");
+            if (m.getGenres() != null && !m.getGenres().isEmpty()) {
+                sb.append(" (").append(String.join(", ", m.getGenres())).append(')');
+            }
+            Double rating = m.getRating() != null ? m.getRating().getAverage() : null;
+            if (rating != null && rating > 0) {
+                sb.append(" ⭐ ").append(String.format(Locale.ROOT, "%.1f", rating));
+            }
+            if (m.getFormats() != null && !m.getFormats().isEmpty()) {
+                sb.append(" · ").append(String.join(", ",
+                        m.getFormats().stream().map(f -> formatName(f.name())).toList()));
+            }
+            sb.append('\n');
+        }
+        return sb.append("\nAsk me about any of these for showtimes and theaters.").toString();
+    }
+
+    private static String renderRecommendation(RecommendationResult result) {
+        return "🎬 For " + result.genre() + ", I'd recommend **" + formatName(result.recommendedFormat()) + "**. "
+                + result.reason();
+    }
+
+    private static String findGenre(String text) {
+        for (Map.Entry<Pattern, String> e : GENRES.entrySet()) {
+            if (e.getKey().matcher(text).find()) {
+                return e.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Pattern genrePattern(String name) {
+        return Pattern.compile("\\b" + Pattern.quote(name) + "\\b");
+    }
+
+    private static String find(Pattern pattern, String text) {
+        Matcher m = pattern.matcher(text);
+        return m.find() ? m.group() : null;
+    }
+
+    private static int countMatches(Pattern pattern, String text) {
+        Set<String> distinct = new HashSet<>();
+        Matcher m = pattern.matcher(text);
+        while (m.find()) {
+            distinct.add(m.group());
+        }
+        return distinct.size();
+    }
+
+    private static String formatName(String format) {
+        return switch (format) {
+            case "IMAX_2D" -> "IMAX 2D";
+            case "IMAX_3D" -> "IMAX 3D";
+            case "FOUR_DX" -> "4DX";
+            case "STANDARD_2D" -> "Standard 2D";
+            case "STANDARD_3D" -> "Standard 3D";
+            case "DOLBY_ATMOS" -> "Dolby Atmos";
+            default -> format;
+        };
+    }
+
+    private static String capitalize(String value) {
+        return value.charAt(0) + value.substring(1).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,487 @@
+package com.moviebooking.ai;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * LLM Gateway
+ * Every model call goes through here. Concurrency is capped by an AIMD limit: it grows by one
+ * per limit's worth of successes and halves on a 429 or timeout, so a burst backs off instead of
+ * piling onto the quota. Callers beyond the limit wait in a bounded queue up to a deadline;
+ * 429/5xx and I/O failures are retried with exponential backoff and full jitter; and after
+ * repeated failures a circuit breaker rejects calls at once for a cool-down period, so callers
+ * fall back to deterministic answers. Attempts run on virtual threads so a slow upstream never
+ * holds a platform thread.
+ * Point spring.ai.openai.base-url (GEMINI_BASE_URL) at a local stub server to exercise it.
+ */
+@Component
+@Slf4j
+public class LlmGateway {
+
+    private static final Pattern LEADING_STATUS = Pattern.compile("^\\s*(\\d{3})\\b");
+
+    @Value("${chat.llm.initial-limit:4}")
+    private int initialLimit;
+
+    @Value("${chat.llm.min-limit:1}")
+    private int minLimit;
+
+    @Value("${chat.llm.max-limit:32}")
+    private int maxLimit;
+
+    @Value("${chat.llm.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${chat.llm.queue-timeout-ms:10000}")
+    private long queueTimeoutMs;
+
+    @Value("${chat.llm.call-timeout-ms:60000}")
+    private long callTimeoutMs;
+
+    @Value("${chat.llm.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${chat.llm.backoff-base-ms:500}")
+    private long backoffBaseMs;
+
+    @Value("${chat.llm.backoff-max-ms:8000}")
+    private long backoffMaxMs;
+
+    @Value("${chat.llm.breaker-failure-threshold:5}")
+    private int breakerFailureThreshold;
+
+    @Value("${chat.llm.breaker-open-ms:30000}")
+    private long breakerOpenMs;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Limiter state, guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitFreed = lock.newCondition();
+    private double limit = -1;  // set lazily from initialLimit
+    private int inFlight;
+    private int waiting;
+
+    // Breaker state, guarded by lock
+    private BreakerState breakerState = BreakerState.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtMillis;
+    private boolean probeInFlight;
+
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+    private long lastLoggedCalls;  // scheduler thread only
+
+    public enum BreakerState {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Thrown without calling the model: the circuit is open, the queue is full, or the wait
+     * for a permit passed its deadline
+     */
+    public static class LlmUnavailableException extends RuntimeException {
+        public LlmUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run a blocking model call under the limiter, retrying transient failures. The permit is
+     * given back for the backoff, so a retrying call never holds a slot while it sleeps.
+     */
+    public <T> T call(Supplier<T> request) {
+        boolean probe = admit();
+        acquireOrAbandon(probe);
+        long start = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            Exception failure;
+            try {
+                T result = runWithDeadline(request);
+                onSuccess(start, probe);
+                return result;
+            } catch (Exception e) {
+                failure = e;
+            } finally {
+                release();
+            }
+            boolean overloaded = isOverload(failure);
+            boolean retryable = overloaded || isTransient(failure);
+            if (overloaded) {
+                throttled.increment();
+                decreaseLimit();
+            }
+            if (attempt >= maxAttempts || !retryable) {
+                onFailure(probe, retryable);
+                throw failure instanceof RuntimeException re ? re : new RuntimeException(failure);
+            }
+            retried.increment();
+            try {
+                sleep(backoff(attempt));
+                acquire();
+            } catch (LlmUnavailableException e) {
+                // Could not get back in line: the provider failure stands as the outcome
+                onFailure(probe, true);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Stream a model reply under the limiter. A failure before the first chunk is retried, one after
+     * it is passed on (the client already has text). As with call(), each attempt holds a permit only
+     * while it runs, so a stream waiting out its backoff does not keep a slot from other callers.
+     */
+    public <T> Flux<T> stream(Supplier<Flux<T>> request) {
+        return Flux.defer(() -> {
+            boolean probe = admit();
+            acquireOrAbandon(probe);
+            long start = System.nanoTime();
+            AtomicBoolean emitted = new AtomicBoolean();
+            // The permit taken above, used by the first attempt; retries acquire their own
+            AtomicBoolean firstPermit = new AtomicBoolean(true);
+            return Flux.defer(() -> attempt(request, firstPermit.getAndSet(false)))
+                    .doOnNext(chunk -> emitted.set(true))
+                    .doOnError(e -> {
+                        if (isOverload(e)) {
+                            throttled.increment();
+                            decreaseLimit();
+                        }
+                    })
+                    // Retries re-acquire a permit, which can block, so they resubscribe off the parallel scheduler
+                    .retryWhen(Retry.backoff(Math.max(0, maxAttempts - 1), Duration.ofMillis(backoffBaseMs))
+                            .maxBackoff(Duration.ofMillis(backoffMaxMs))
+                            .jitter(1.0)
+                            .scheduler(Schedulers.boundedElastic())
+                            .filter(e -> !emitted.get() && (isOverload(e) || isTransient(e)))
+                            .doBeforeRetry(signal -> retried.increment())
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                    .doOnComplete(() -> onSuccess(start, probe))
+                    // Inside the chain the gateway only turns a retry away, after a provider failure
+                    .doOnError(e -> onFailure(probe, isOverload(e) || isTransient(e)
+                            || e instanceof LlmUnavailableException))
+                    .doFinally(signal -> {
+                        if (firstPermit.getAndSet(false)) {
+                            release();  // ended before the first attempt subscribed
+                        }
+                        if (signal == SignalType.CANCEL) {
+                            abandonProbe(probe);  // client went away; neither success nor failure
+                        }
+                    });
+        });
+    }
+
+    /**
+     * One subscription to the model, holding a permit until it ends
+     */
+    private <T> Flux<T> attempt(Supplier<Flux<T>> request, boolean holdsPermit) {
+        if (!holdsPermit) {
+            acquire();
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable releaseOnce = () -> {
+            if (released.compareAndSet(false, true)) {
+                release();
+            }
+        };
+        // Released before the error travels on, so the retry it triggers never overlaps this permit
+        return Flux.defer(request)
+                .timeout(Duration.ofMillis(callTimeoutMs))
+                .doOnTerminate(releaseOnce)
+                .doOnCancel(releaseOnce);
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            metrics.put("limit", Math.round(currentLimit() * 10) / 10.0);
+            metrics.put("inFlight", inFlight);
+            metrics.put("waiting", waiting);
+            metrics.put("breaker", breakerState.name());
+        } finally {
+            lock.unlock();
+        }
+        metrics.put("succeeded", succeeded.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("retried", retried.sum());
+        metrics.put("throttled", throttled.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("shortCircuited", shortCircuited.sum());
+        return metrics;
+    }
+
+    @Scheduled(fixedDelayString = "${chat.metrics-log-ms:60000}")
+    public void logMetrics() {
+        long calls = succeeded.sum() + failed.sum() + rejected.sum() + shortCircuited.sum();
+        if (calls != lastLoggedCalls) {
+            lastLoggedCalls = calls;
+            log.info("LLM gateway: {}", metrics());
+        }
+    }
+
+    // ---- circuit breaker ----
+
+    /**
+     * Let the call through the breaker; true when it is the single half-open probe
+     */
+    private boolean admit() {
+        lock.lock();
+        try {
+            if (breakerState == BreakerState.OPEN) {
+                if (System.currentTimeMillis() - openedAtMillis < breakerOpenMs) {
+                    shortCircuited.increment();
+                    throw new LlmUnavailableException("Model circuit open");
+                }
+                breakerState = BreakerState.HALF_OPEN;
+                probeInFlight = false;
+            }
+            if (breakerState == BreakerState.HALF_OPEN) {
+                if (probeInFlight) {
+                    shortCircuited.increment();
+                    throw new LlmUnavailableException("Model circuit half-open");
+                }
+                probeInFlight = true;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSuccess(long startNanos, boolean probe) {
+        succeeded.increment();
+        lock.lock();
+        try {
+            consecutiveFailures = 0;
+            if (probe || breakerState == BreakerState.HALF_OPEN) {
+                breakerState = BreakerState.CLOSED;
+                probeInFlight = false;
+                log.info("LLM circuit closed");
+            }
+            // Additive increase: about +1 once a full limit's worth of calls has succeeded
+            limit = Math.min(maxLimit, currentLimit() + 1.0 / currentLimit());
+        } finally {
+            lock.unlock();
+        }
+        log.debug("LLM call took {} ms", (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Record a failed call. Only provider trouble (overload or a transient error) counts towards
+     * opening the circuit; anything else, such as a 400 or a tool error, still shows the provider
+     * answering, so it closes a half-open probe and leaves the failure count alone.
+     */
+    private void onFailure(boolean probe, boolean providerFault) {
+        failed.increment();
+        lock.lock();
+        try {
+            if (!providerFault) {
+                if (probe || breakerState == BreakerState.HALF_OPEN) {
+                    breakerState = BreakerState.CLOSED;
+                    consecutiveFailures = 0;
+                    probeInFlight = false;
+                    log.info("LLM circuit closed");
+                }
+                return;
+            }
+            consecutiveFailures++;
+            if (probe || breakerState == BreakerState.HALF_OPEN || consecutiveFailures >= breakerFailureThreshold) {
+                if (breakerState != BreakerState.OPEN) {
+                    log.warn("LLM circuit opened after {} consecutive failures", consecutiveFailures);
+                }
+                breakerState = BreakerState.OPEN;
+                openedAtMillis = System.currentTimeMillis();
+                probeInFlight = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void abandonProbe(boolean probe) {
+        if (!probe) {
+            return;
+        }
+        lock.lock();
+        try {
+            probeInFlight = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ---- adaptive limiter ----
+
+    private void acquireOrAbandon(boolean probe) {
+        try {
+            acquire();
+        } catch (RuntimeException e) {
+            abandonProbe(probe);
+            throw e;
+        }
+    }
+
+    private void acquire() {
+        lock.lock();
+        try {
+            if (inFlight < (int) currentLimit()) {
+                inFlight++;
+                return;
+            }
+            if (waiting >= queueCapacity) {
+                rejected.increment();
+                throw new LlmUnavailableException("Model queue full");
+            }
+            waiting++;
+            try {
+                long remaining = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+                while (inFlight >= (int) currentLimit()) {
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        throw new LlmUnavailableException("Timed out waiting for a model slot");
+                    }
+                    remaining = permitFreed.awaitNanos(remaining);
+                }
+                inFlight++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new LlmUnavailableException("Interrupted waiting for a model slot");
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            permitFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Multiplicative decrease on overload
+    private void decreaseLimit() {
+        lock.lock();
+        try {
+            limit = Math.max(minLimit, currentLimit() / 2);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double currentLimit() {
+        if (limit < 0) {
+            limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        }
+        return limit;
+    }
+
+    // ---- attempts ----
+
+    private <T> T runWithDeadline(Supplier<T> request) throws Exception {
+        Future<T> future = executor.submit(request::get);
+        try {
+            return future.get(callTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    // Exponential backoff with full jitter: uniform in [0, min(max, base * 2^(attempt-1))]
+    private long backoff(int attempt) {
+        long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LlmUnavailableException("Interrupted during backoff");
+        }
+    }
+
+    // 429 or a timeout: the provider is saturated, so shrink the limit
+    private static boolean isOverload(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException || statusOf(t) == 429) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 5xx or a connection failure: worth another attempt
+    private static boolean isTransient(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            int status = statusOf(t);
+            if (status >= 500 || t instanceof ResourceAccessException || t instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * HTTP status of a provider error, from the HTTP client exception or the "429 - ..." message
+     * Spring AI's error handler produces; 0 when there is none
+     */
+    private static int statusOf(Throwable t) {
+        if (t instanceof RestClientResponseException r) {
+            return r.getStatusCode().value();
+        }
+        if (t.getMessage() != null) {
+            Matcher m = LEADING_STATUS.matcher(t.getMessage());
+            if (m.find()) {
+                return Integer.parseInt(m.group(1));
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.moviebooking.ai;
+
+/**
+ * Cheap local token count for budgeting prompts, close enough to the model's tokenizer
+ * without calling it: ASCII words cost about one token per four characters, whitespace is
+ * folded into the following word, and punctuation, emoji and non-Latin characters cost one each.
+ */
+public final class TokenEstimator {
+
+    // Role marker and separators the chat format adds around every message
+    public static final int MESSAGE_OVERHEAD = 4;
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int tokens = 0;
+        int wordLength = 0;
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+            if (cp < 128 && Character.isLetterOrDigit(cp)) {
+                wordLength++;
+                continue;
+            }
+            tokens += (wordLength + 3) / 4;
+            wordLength = 0;
+            if (!Character.isWhitespace(cp)) {
+                tokens++;
+            }
+        }
+        return tokens + (wordLength + 3) / 4;
+    }
+
+    public static int estimateMessage(String text) {
+        return estimate(text) + MESSAGE_OVERHEAD;
+    }
+}
@@ -6,15 +6,19 @@ import com.moviebooking.entity.supabase.ShowSeat;
 import com.moviebooking.repository.supabase.MovieRepository;
 import com.moviebooking.repository.supabase.ShowRepository;
 import com.moviebooking.repository.supabase.TheaterRepository;
-import com.moviebooking.repository.supabase.ShowSeatRepository;
+import com.moviebooking.service.CatalogVersionService.Collection;
 import com.moviebooking.service.PricingService;
+import com.moviebooking.service.SeatCounterService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Description;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.function.Function;
@@ -22,7 +26,8 @@ import java.util.stream.Collectors;
 
 /**
  * AI Tools for Gemini Function Calling
- * These methods are exposed to the AI for querying the database
+ * These methods are exposed to the AI for querying the database.
+ * Results are memoized per request (see ToolResultCache): catalog lookups for minutes, seat availability for seconds.
  */
 @Configuration
 @RequiredArgsConstructor
@@ -32,8 +37,25 @@ public class MovieConciergeTools {
     private final MovieRepository movieRepository;
     private final TheaterRepository theaterRepository;
     private final ShowRepository showRepository;
-    private final ShowSeatRepository showSeatRepository;
     private final PricingService pricingService;
+    private final SeatCounterService seatCounterService;
+    private final ToolResultCache toolCache;
+
+    // Tier explanations are constants
+    private static final Duration STATIC_TTL = Duration.ofHours(1);
+
+    @Value("${chat.tool-ttl.catalog-ms:600000}")
+    private long catalogTtlMs;
+
+    // Seat counts change with every booking and lapsed lock, so only absorb bursts of repeat calls
+    @Value("${chat.tool-ttl.availability-ms:5000}")
+    private long availabilityTtlMs;
+
+    @PostConstruct
+    void registerSeatListener() {
+        seatCounterService.addChangeListener(showIds -> toolCache.invalidate("checkSeatAvailability",
+                request -> request instanceof ShowIdRequest r && showIds.contains(r.showId())));
+    }
 
     /**
      * Search movies by genre, language, or format
@@ -41,7 +63,7 @@ public class MovieConciergeTools {
     @Bean
     @Description("Search for movies based on genre, language, or format")
     public Function<SearchRequest, List<MovieSummary>> searchMovies() {
-        return request -> {
+        return toolCache.memoize("searchMovies", catalogTtl(), EnumSet.of(Collection.MOVIES), request -> {
             log.info("AI Tool: searchMovies called with {}", request);
             List<Movie> movies;
             
@@ -65,7 +87,7 @@ public class MovieConciergeTools {
                     ))
                     .limit(10)
                     .toList();
-        };
+        });
     }
 
     /**
@@ -74,7 +96,7 @@ public class MovieConciergeTools {
     @Bean
     @Description("Get detailed information about a specific movie including cast and reviews")
     public Function<MovieIdRequest, MovieDetails> getMovieDetails() {
-        return request -> {
+        return toolCache.memoize("getMovieDetails", catalogTtl(), EnumSet.of(Collection.MOVIES), request -> {
             log.info("AI Tool: getMovieDetails called for {}", request.movieId());
             Movie movie = movieRepository.findById(request.movieId())
                     .orElseThrow(() -> new RuntimeException("Movie not found"));
@@ -93,7 +115,7 @@ public class MovieConciergeTools {
                             .toList() : List.of(),
                     movie.getFormats().stream().map(Enum::name).toList()
             );
-        };
+        });
     }
 
     /**
@@ -102,7 +124,7 @@ public class MovieConciergeTools {
     @Bean
     @Description("Get list of theaters where a movie is currently showing")
     public Function<MovieIdRequest, List<TheaterInfo>> getTheatersForMovie() {
-        return request -> {
+        return toolCache.memoize("getTheatersForMovie", catalogTtl(), EnumSet.of(Collection.SHOWS, Collection.THEATERS), request -> {
             log.info("AI Tool: getTheatersForMovie called for {}", request.movieId());
             List<Show> shows = showRepository.findByMovieId(request.movieId());
             
@@ -110,12 +132,11 @@ public class MovieConciergeTools {
                     .map(Show::getTheaterId)
                     .collect(Collectors.toSet());
             
-            return theaterIds.stream()
-                    .map(id -> theaterRepository.findById(id).orElse(null))
-                    .filter(Objects::nonNull)
+            // One query for all theaters rather than one per theater
+            return theaterRepository.findAllById(theaterIds).stream()
                     .map(t -> new TheaterInfo(t.getId(), t.getName(), t.getCity(), t.getFacilities()))
                     .toList();
-        };
+        });
     }
 
     /**
@@ -124,13 +145,12 @@ public class MovieConciergeTools {
     @Bean
     @Description("Get available showtimes for a movie at a theater on a specific date")
     public Function<ShowtimeRequest, List<ShowtimeInfo>> getShowtimes() {
-        return request -> {
+        Function<ShowtimeRequest, List<ShowtimeInfo>> memoized = toolCache.memoize("getShowtimes", catalogTtl(), EnumSet.of(Collection.SHOWS), request -> {
             log.info("AI Tool: getShowtimes called for movie {} at theater {} on {}", 
                     request.movieId(), request.theaterId(), request.date());
             
-            LocalDate date = request.date() != null ? LocalDate.parse(request.date()) : LocalDate.now();
             List<Show> shows = showRepository.findByMovieIdAndTheaterIdAndDate(
-                    request.movieId(), request.theaterId(), date);
+                    request.movieId(), request.theaterId(), LocalDate.parse(request.date()));
             
             return shows.stream()
                     .map(s -> new ShowtimeInfo(
@@ -140,7 +160,10 @@ public class MovieConciergeTools {
                             s.getLanguage()
                     ))
                     .toList();
-        };
+        });
+        // "Today" is resolved before the cache lookup, so a cached answer never outlives the day it was for
+        return request -> memoized.apply(new ShowtimeRequest(request.movieId(), request.theaterId(),
+                request.date() != null ? request.date() : LocalDate.now().toString()));
     }
 
     /**
@@ -149,19 +172,16 @@ public class MovieConciergeTools {
     @Bean
     @Description("Check real-time seat availability for a specific show")
     public Function<ShowIdRequest, SeatAvailability> checkSeatAvailability() {
-        return request -> {
+        return toolCache.memoize("checkSeatAvailability", availabilityTtl(), EnumSet.noneOf(Collection.class), request -> {
             log.info("AI Tool: checkSeatAvailability called for show {}", request.showId());
-            List<ShowSeat> seats = showSeatRepository.findByShowId(request.showId());
+            // Per-tier counts from one GROUP BY (shared with the seat grid) instead of loading every seat
+            SeatCounterService.ShowSeatCounts counts = seatCounterService.getCounts(request.showId());
             
-            Map<String, Long> availableByTier = seats.stream()
-                    .filter(ShowSeat::isAvailable)
-                    .collect(Collectors.groupingBy(
-                            s -> s.getTier().name(),
-                            Collectors.counting()
-                    ));
+            Map<String, Long> availableByTier = new HashMap<>();
+            counts.availableByTier().forEach((tier, n) -> availableByTier.put(tier.name(), n));
             
-            long totalAvailable = seats.stream().filter(ShowSeat::isAvailable).count();
-            long totalSeats = seats.size();
+            long totalAvailable = counts.available();
+            long totalSeats = counts.total();
             
             return new SeatAvailability(
                     request.showId(),
@@ -169,7 +189,7 @@ public class MovieConciergeTools {
                     totalSeats,
                     availableByTier
             );
-        };
+        });
     }
 
     /**
@@ -178,7 +198,7 @@ public class MovieConciergeTools {
     @Bean
     @Description("Get pricing information for seats in different tiers for a show")
     public Function<ShowIdRequest, PricingInfo> getSeatPricing() {
-        return request -> {
+        return toolCache.memoize("getSeatPricing", catalogTtl(), EnumSet.of(Collection.SHOWS, Collection.MOVIES), request -> {
             log.info("AI Tool: getSeatPricing called for show {}", request.showId());
             Show show = showRepository.findById(request.showId())
                     .orElseThrow(() -> new RuntimeException("Show not found"));
@@ -198,7 +218,7 @@ public class MovieConciergeTools {
                     tierPrices,
                     "Prices include format premium for " + show.getFormat().name()
             );
-        };
+        });
     }
 
     /**
@@ -207,10 +227,10 @@ public class MovieConciergeTools {
     @Bean
     @Description("Explain the differences between seat tiers (Classic, Prime, Premium, VIP)")
     public Function<EmptyRequest, String> explainSeatTiers() {
-        return request -> {
+        return toolCache.memoize("explainSeatTiers", STATIC_TTL, EnumSet.noneOf(Collection.class), request -> {
             log.info("AI Tool: explainSeatTiers called");
             return pricingService.explainTierDifferences();
-        };
+        });
     }
 
     /**
@@ -252,6 +272,14 @@ public class MovieConciergeTools {
         };
     }
 
+    private Duration catalogTtl() {
+        return Duration.ofMillis(catalogTtlMs);
+    }
+
+    private Duration availabilityTtl() {
+        return Duration.ofMillis(availabilityTtlMs);
+    }
+
     // Record classes for function parameters and returns
     public record EmptyRequest() {}
     public record SearchRequest(String genre, Movie.MovieFormat format, String language) {}
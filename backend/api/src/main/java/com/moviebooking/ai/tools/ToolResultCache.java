@@ -0,0 +1,128 @@
+package com.moviebooking.ai.tools;
+
+import com.moviebooking.service.CatalogVersionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Memoizes concierge tool results across sessions, keyed on the tool's request record.
+ * Each tool has its own TTL, and entries also lapse when a catalog collection the tool reads
+ * from changes version. A zero TTL passes every call through (for anything lock-sensitive).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ToolResultCache {
+
+    private static final int MAX_ENTRIES_PER_TOOL = 2048;
+
+    private final CatalogVersionService catalogVersionService;
+
+    private final Map<String, ToolCache<?, ?>> tools = new ConcurrentHashMap<>();
+    private long lastLoggedCalls;  // scheduler thread only
+
+    private record Entry<R>(R value, long version, long loadedAtMillis) {}
+
+    private final class ToolCache<T, R> implements Function<T, R> {
+        final Map<T, Entry<R>> entries = new ConcurrentHashMap<>();
+        final long ttlMs;
+        final Set<CatalogVersionService.Collection> dependsOn;
+        final Function<T, R> loader;
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+
+        ToolCache(Duration ttl, Set<CatalogVersionService.Collection> dependsOn, Function<T, R> loader) {
+            this.ttlMs = ttl.toMillis();
+            this.dependsOn = dependsOn;
+            this.loader = loader;
+        }
+
+        @Override
+        public R apply(T request) {
+            if (ttlMs <= 0 || request == null) {
+                misses.increment();
+                return loader.apply(request);
+            }
+            // Versions are bumped after commit; reading before the load means an entry is never
+            // stored under a version newer than the rows it was built from
+            long version = version();
+            long now = System.currentTimeMillis();
+            Entry<R> cached = entries.get(request);
+            if (cached != null && cached.version() == version && now - cached.loadedAtMillis() < ttlMs) {
+                hits.increment();
+                return cached.value();
+            }
+            misses.increment();
+            R value = loader.apply(request);
+            if (value != null) {
+                if (entries.size() >= MAX_ENTRIES_PER_TOOL) {
+                    entries.clear();
+                }
+                entries.put(request, new Entry<>(value, version, now));
+            }
+            return value;
+        }
+
+        // Versions only grow, so the sum changes whenever any dependency does
+        private long version() {
+            long sum = 0;
+            for (CatalogVersionService.Collection c : dependsOn) {
+                sum += catalogVersionService.version(c);
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * Wrap a tool function with a cache of the given TTL, invalidated when any of dependsOn changes
+     */
+    public <T, R> Function<T, R> memoize(String tool, Duration ttl,
+                                         Set<CatalogVersionService.Collection> dependsOn, Function<T, R> loader) {
+        ToolCache<T, R> cache = new ToolCache<>(ttl, dependsOn, loader);
+        tools.put(tool, cache);
+        return cache;
+    }
+
+    /**
+     * Drop a tool's entries whose request matches, e.g. availability for shows whose seats changed
+     */
+    public void invalidate(String tool, Predicate<Object> requestFilter) {
+        ToolCache<?, ?> cache = tools.get(tool);
+        if (cache != null) {
+            cache.entries.keySet().removeIf(requestFilter);
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new TreeMap<>();
+        tools.forEach((tool, cache) -> {
+            long hits = cache.hits.sum();
+            long calls = hits + cache.misses.sum();
+            metrics.put(tool, Map.of(
+                    "calls", calls,
+                    "hits", hits,
+                    "hitRate", calls == 0 ? 0.0 : Math.round(1000.0 * hits / calls) / 1000.0,
+                    "entries", cache.entries.size()
+            ));
+        });
+        return metrics;
+    }
+
+    @Scheduled(fixedDelayString = "${chat.metrics-log-ms:60000}")
+    public void logMetrics() {
+        long calls = tools.values().stream().mapToLong(c -> c.hits.sum() + c.misses.sum()).sum();
+        if (calls != lastLoggedCalls) {
+            lastLoggedCalls = calls;
+            log.info("Concierge tool cache: {}", metrics());
+        }
+    }
+}
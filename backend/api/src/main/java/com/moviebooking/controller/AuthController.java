@@ -3,7 +3,9 @@ package com.moviebooking.controller;
 import com.moviebooking.dto.request.LoginRequest;
 import com.moviebooking.dto.request.SignupRequest;
 import com.moviebooking.dto.response.AuthResponse;
+import com.moviebooking.security.ClientAddressResolver;
 import com.moviebooking.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -15,15 +17,26 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final ClientAddressResolver clientAddressResolver;
 
     @PostMapping("/signup")
-    public ResponseEntity<AuthResponse> signup(@Valid @RequestBody SignupRequest request) {
-        return ResponseEntity.ok(authService.signup(request));
+    public ResponseEntity<AuthResponse> signup(@Valid @RequestBody SignupRequest request,
+                                               HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(authService.signup(request, clientAddressResolver.resolve(httpRequest)));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(authService.login(request, clientAddressResolver.resolve(httpRequest)));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            authService.logout(authorization.substring(7));
+        }
+        return ResponseEntity.ok().build();
     }
 
     @PostMapping("/google")
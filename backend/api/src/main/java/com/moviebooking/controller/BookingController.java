@@ -3,15 +3,13 @@ package com.moviebooking.controller;
 import com.moviebooking.dto.request.BookingRequest;
 import com.moviebooking.dto.response.BookingResponse;
 import com.moviebooking.entity.supabase.ShowSeat;
-import com.moviebooking.entity.supabase.User;
 import com.moviebooking.repository.supabase.ShowSeatRepository;
-import com.moviebooking.security.UserDetailsServiceImpl;
+import com.moviebooking.security.AuthenticatedUser;
 import com.moviebooking.service.BookingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -24,7 +22,6 @@ public class BookingController {
 
     private final BookingService bookingService;
     private final ShowSeatRepository showSeatRepository;
-    private final UserDetailsServiceImpl userDetailsService;
 
     @GetMapping("/seats/{showId}")
     public ResponseEntity<List<ShowSeat>> getSeatsForShow(@PathVariable String showId) {
@@ -54,33 +51,29 @@ public class BookingController {
 
     @PostMapping("/lock")
     public ResponseEntity<List<ShowSeat>> lockSeats(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestBody List<Long> seatIds) {
-        User user = userDetailsService.getUserByEmail(userDetails.getUsername());
-        List<ShowSeat> lockedSeats = bookingService.lockSeats(user.getId(), seatIds);
+        List<ShowSeat> lockedSeats = bookingService.lockSeats(principal.getId(), seatIds);
         return ResponseEntity.ok(lockedSeats);
     }
 
     @PostMapping("/complete")
     public ResponseEntity<BookingResponse> completeBooking(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @Valid @RequestBody BookingRequest request) {
-        User user = userDetailsService.getUserByEmail(userDetails.getUsername());
-        BookingResponse response = bookingService.completeBooking(user.getId(), request);
+        BookingResponse response = bookingService.completeBooking(principal.getId(), request);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/my-bookings")
     public ResponseEntity<List<BookingResponse>> getMyBookings(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User user = userDetailsService.getUserByEmail(userDetails.getUsername());
-        return ResponseEntity.ok(bookingService.getUserBookings(user.getId()));
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(bookingService.getUserBookings(principal.getId()));
     }
 
     @GetMapping("/my-tickets")
     public ResponseEntity<List<BookingResponse>> getMyTickets(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User user = userDetailsService.getUserByEmail(userDetails.getUsername());
-        return ResponseEntity.ok(bookingService.getUpcomingTickets(user.getId()));
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(bookingService.getUpcomingTickets(principal.getId()));
     }
 }
@@ -1,14 +1,16 @@
 package com.moviebooking.controller;
 
 import com.moviebooking.ai.GeminiChatService;
-import com.moviebooking.entity.supabase.User;
-import com.moviebooking.security.UserDetailsServiceImpl;
+import com.moviebooking.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
 
+import java.io.IOException;
 import java.util.Map;
 
 @RestController
@@ -16,8 +18,9 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ChatController {
 
+    private static final long STREAM_TIMEOUT_MS = 120_000;
+
     private final GeminiChatService chatService;
-    private final UserDetailsServiceImpl userDetailsService;
 
     /**
      * Public chat endpoint (anonymous users)
@@ -39,19 +42,40 @@ public class ChatController {
      */
     @PostMapping("/authenticated")
     public ResponseEntity<Map<String, String>> authenticatedChat(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam String sessionId,
             @RequestBody Map<String, String> request) {
-        User user = userDetailsService.getUserByEmail(userDetails.getUsername());
         String userMessage = request.get("message");
-        String response = chatService.chat(sessionId, user.getId(), userMessage);
+        String response = chatService.chat(sessionId, principal.getId(), userMessage);
         return ResponseEntity.ok(Map.of(
                 "response", response,
                 "sessionId", sessionId,
-                "userId", user.getId().toString()
+                "userId", principal.getId().toString()
         ));
     }
 
+    /**
+     * Public chat endpoint streamed as server-sent events: "token" events carry text as it is
+     * generated, then a single "done" (or "error") event ends the stream
+     */
+    @PostMapping(value = "/public/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter publicChatStream(
+            @RequestParam String sessionId,
+            @RequestBody Map<String, String> request) {
+        return stream(sessionId, null, request.get("message"));
+    }
+
+    /**
+     * Authenticated chat endpoint streamed as server-sent events
+     */
+    @PostMapping(value = "/authenticated/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter authenticatedChatStream(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam String sessionId,
+            @RequestBody Map<String, String> request) {
+        return stream(sessionId, principal.getId(), request.get("message"));
+    }
+
     /**
      * Create new chat session
      */
@@ -60,4 +84,32 @@ public class ChatController {
         String sessionId = chatService.createNewSession();
         return ResponseEntity.ok(Map.of("sessionId", sessionId));
     }
+
+    private SseEmitter stream(String sessionId, Long userId, String userMessage) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        Disposable subscription = chatService.chatStream(sessionId, userId, userMessage).subscribe(
+                // Chunks are wrapped in JSON so leading spaces and newlines survive the SSE framing
+                chunk -> send(emitter, "token", Map.of("text", chunk)),
+                error -> {
+                    send(emitter, "error", Map.of("message", GeminiChatService.fallbackMessage(error)));
+                    emitter.complete();
+                },
+                () -> {
+                    send(emitter, "done", Map.of("sessionId", sessionId));
+                    emitter.complete();
+                });
+        // Stop generating once the client has gone away, and release the subscription however the emitter ends
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+        emitter.onCompletion(subscription::dispose);
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, String event, Map<String, String> data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
 }
@@ -1,7 +1,13 @@
 package com.moviebooking.controller;
 
+import com.moviebooking.dto.response.CursorPage;
 import com.moviebooking.entity.supabase.Movie;
 import com.moviebooking.repository.supabase.MovieRepository;
+import com.moviebooking.service.CatalogPagingService;
+import com.moviebooking.service.CatalogResponseCache;
+import com.moviebooking.service.CatalogVersionService;
+import com.moviebooking.service.MovieRankingService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,50 +20,106 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MovieController {
 
+    private static final CatalogVersionService.Collection MOVIES = CatalogVersionService.Collection.MOVIES;
+    // Upper bound for the ranked lists; the default returns the whole list for catalogs up to this size
+    private static final int MAX_LIST_LIMIT = 500;
+
     private final MovieRepository movieRepository;
+    private final CatalogPagingService catalogPagingService;
+    private final MovieRankingService movieRankingService;
+    private final CatalogResponseCache responseCache;
 
     @GetMapping
-    public ResponseEntity<List<Movie>> getAllMovies() {
-        return ResponseEntity.ok(movieRepository.findAll());
+    public ResponseEntity<byte[]> getAllMovies(HttpServletRequest request) {
+        return responseCache.respond(request, "movies:all", movieRepository::findAll, MOVIES);
+    }
+
+    /**
+     * Cursor-paginated catalog; sort is one of rating, release_date, title
+     */
+    @GetMapping("/paged")
+    public ResponseEntity<CursorPage<Movie>> getMoviesPaged(
+            @RequestParam(defaultValue = "rating") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(catalogPagingService.getMovies(
+                CatalogPagingService.MovieSort.fromParam(sort), cursor, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Movie> getMovieById(@PathVariable String id) {
-        return movieRepository.findById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getMovieById(HttpServletRequest request, @PathVariable String id) {
+        return responseCache.respond(request, "movies:id:" + id,
+                () -> movieRepository.findById(id).orElse(null), MOVIES);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Movie>> searchMovies(
+    public ResponseEntity<byte[]> searchMovies(
+            HttpServletRequest request,
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String genre,
             @RequestParam(required = false) String language) {
-        
+        String key = "movies:search:" + title + ":" + genre + ":" + language;
+        return responseCache.respond(request, key, () -> search(title, genre, language), MOVIES);
+    }
+
+    private List<Movie> search(String title, String genre, String language) {
         if (title != null && !title.isEmpty()) {
-            return ResponseEntity.ok(movieRepository.findByTitleContainingIgnoreCase(title));
+            return movieRepository.findByTitleContainingIgnoreCase(title);
         }
         if (genre != null && !genre.isEmpty()) {
-            return ResponseEntity.ok(movieRepository.findByGenresIn(genre));
+            return movieRepository.findByGenresIn(genre);
         }
         if (language != null && !language.isEmpty()) {
-            return ResponseEntity.ok(movieRepository.findByLanguagesIn(List.of(language)));
+            return movieRepository.findByLanguagesIn(List.of(language));
         }
-        return ResponseEntity.ok(movieRepository.findAll());
+        return movieRepository.findAll();
     }
 
     @GetMapping("/now-showing")
-    public ResponseEntity<List<Movie>> getNowShowing() {
-        return ResponseEntity.ok(movieRepository.findNowShowing(LocalDate.now()));
+    public ResponseEntity<byte[]> getNowShowing(
+            HttpServletRequest request,
+            @RequestParam(defaultValue = "" + MAX_LIST_LIMIT) int limit) {
+        int size = clampLimit(limit);
+        // The now-showing / coming-soon split moves at midnight, so the day is part of the key
+        String key = "movies:now-showing:" + LocalDate.now() + ":" + size;
+        return responseCache.respond(request, key, () -> movieRankingService.nowShowing(size), MOVIES);
     }
 
     @GetMapping("/top-rated")
-    public ResponseEntity<List<Movie>> getTopRated(@RequestParam(defaultValue = "8.0") Double minRating) {
-        return ResponseEntity.ok(movieRepository.findByRatingGreaterThan(minRating));
+    public ResponseEntity<byte[]> getTopRated(
+            HttpServletRequest request,
+            @RequestParam(defaultValue = "8.0") Double minRating,
+            @RequestParam(defaultValue = "" + MAX_LIST_LIMIT) int limit) {
+        int size = clampLimit(limit);
+        // Ratings have one decimal, so a finer threshold selects the same movies; this bounds the cache keys too
+        double threshold = Math.max(0.0, Math.min(10.0, Math.ceil(minRating * 10 - 1e-9) / 10.0));
+        String key = "movies:top-rated:" + threshold + ":" + size;
+        return responseCache.respond(request, key, () -> movieRankingService.topRated(threshold, size), MOVIES);
+    }
+
+    @GetMapping("/top-rated/paged")
+    public ResponseEntity<CursorPage<Movie>> getTopRatedPaged(
+            @RequestParam(defaultValue = "8.0") Double minRating,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(catalogPagingService.getMoviesByRating(minRating, cursor, limit));
     }
 
     @GetMapping("/coming-soon")
-    public ResponseEntity<List<Movie>> getComingSoon() {
-        return ResponseEntity.ok(movieRepository.findComingSoon(LocalDate.now()));
+    public ResponseEntity<byte[]> getComingSoon(
+            HttpServletRequest request,
+            @RequestParam(defaultValue = "" + MAX_LIST_LIMIT) int limit) {
+        int size = clampLimit(limit);
+        String key = "movies:coming-soon:" + LocalDate.now() + ":" + size;
+        return responseCache.respond(request, key, () -> movieRankingService.comingSoon(size), MOVIES);
+    }
+
+    @GetMapping("/popular")
+    public ResponseEntity<List<Movie>> getPopular(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(movieRankingService.popular(clampLimit(limit)));
+    }
+
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIST_LIMIT));
     }
 }
@@ -1,19 +1,27 @@
 package com.moviebooking.controller;
 
+import com.moviebooking.dto.response.CursorPage;
+import com.moviebooking.dto.response.TrendingHashtagResponse;
 import com.moviebooking.entity.supabase.Review;
-import com.moviebooking.entity.supabase.User;
 import com.moviebooking.repository.supabase.ReviewRepository;
+import com.moviebooking.security.AuthenticatedUser;
+import com.moviebooking.security.ClientAddressResolver;
 import com.moviebooking.security.UserDetailsServiceImpl;
+import com.moviebooking.service.HashtagTrendService;
+import com.moviebooking.service.ReviewAggregateService;
+import com.moviebooking.service.ReviewFeedService;
+import com.moviebooking.service.ReviewLikeService;
+import com.moviebooking.service.ReviewService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,70 +31,107 @@ import java.util.Map;
 public class ReviewController {
 
     private final ReviewRepository reviewRepository;
+    private final ReviewService reviewService;
+    private final ReviewAggregateService reviewAggregateService;
+    private final ReviewLikeService reviewLikeService;
+    private final HashtagTrendService hashtagTrendService;
+    private final ReviewFeedService reviewFeedService;
     private final UserDetailsServiceImpl userDetailsService;
+    private final ClientAddressResolver clientAddressResolver;
 
     @GetMapping("/movie/{movieId}")
     public ResponseEntity<Page<Review>> getMovieReviews(
             @PathVariable String movieId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean verifiedOnly) {
         PageRequest pageRequest = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return ResponseEntity.ok(reviewRepository.findByMovieIdOrderByCreatedAtDesc(movieId, pageRequest));
+        Page<Review> reviews = verifiedOnly
+                ? reviewRepository.findByMovieIdAndIsVerifiedBookingTrueOrderByCreatedAtDesc(movieId, pageRequest)
+                : reviewRepository.findByMovieIdOrderByCreatedAtDesc(movieId, pageRequest);
+        return ResponseEntity.ok(reviews.map(reviewLikeService::withPendingLikes));
+    }
+
+    @GetMapping("/movie/{movieId}/feed")
+    public ResponseEntity<CursorPage<Review>> getMovieReviewFeed(
+            @PathVariable String movieId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "false") boolean verifiedOnly) {
+        return ResponseEntity.ok(reviewFeedService.getFeed(movieId, cursor, limit, verifiedOnly));
     }
 
     @GetMapping("/movie/{movieId}/stats")
     public ResponseEntity<Map<String, Object>> getReviewStats(@PathVariable String movieId) {
-        Long count = reviewRepository.countByMovieId(movieId);
-        List<Review> reviews = reviewRepository.findByMovieId(movieId);
-        
-        double averageRating = reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
-        
+        ReviewAggregateService.ReviewStats stats = reviewAggregateService.getStats(movieId);
+
+        // rating (1-10) -> number of reviews
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        for (int r = ReviewAggregateService.MIN_RATING; r <= ReviewAggregateService.MAX_RATING; r++) {
+            histogram.put(r, stats.histogram()[r]);
+        }
+
         return ResponseEntity.ok(Map.of(
-                "count", count,
-                "averageRating", Math.round(averageRating * 10.0) / 10.0
+                "count", stats.count(),
+                "averageRating", Math.round(stats.average() * 10.0) / 10.0,
+                "histogram", histogram
         ));
     }
 
+    @GetMapping("/movie/{movieId}/trending-hashtags")
+    public ResponseEntity<List<TrendingHashtagResponse>> getTrendingHashtagsForMovie(
+            @PathVariable String movieId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(hashtagTrendService.trendingForMovie(movieId, limit));
+    }
+
+    @GetMapping("/trending-hashtags")
+    public ResponseEntity<List<TrendingHashtagResponse>> getTrendingHashtags(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(hashtagTrendService.trendingGlobally(limit));
+    }
+
     @GetMapping("/my-review/{movieId}")
     public ResponseEntity<Review> getMyReview(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable String movieId) {
-        User user = userDetailsService.getUserByEmail(userDetails.getUsername());
-        return reviewRepository.findByMovieIdAndUserId(movieId, user.getId())
+        return reviewRepository.findByMovieIdAndUserId(movieId, principal.getId())
+                .map(reviewLikeService::withPendingLikes)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping("/movie/{movieId}")
     public ResponseEntity<Review> postReview(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable String movieId,
             @RequestBody Review reviewRequest) {
-        User user = userDetailsService.getUserByEmail(userDetails.getUsername());
-        
-        Review review = Review.builder()
-                .movieId(movieId)
-                .userId(user.getId())
-                .userName(user.getFullName())
-                .rating(reviewRequest.getRating())
-                .review(reviewRequest.getReview())
-                .hashtags(reviewRequest.getHashtags())
-                .likes(0L)
-                .createdAt(LocalDateTime.now())
-                .isVerifiedBooking(false)
-                .build();
-        
-        return ResponseEntity.ok(reviewRepository.save(review));
+        // The name claim is fixed when the token is issued; the cached user reflects profile edits
+        String userName = userDetailsService.getUserById(principal.getId()).getFullName();
+        return ResponseEntity.ok(reviewService.postReview(principal.getId(), userName, movieId, reviewRequest));
+    }
+
+    @PutMapping("/{reviewId}")
+    public ResponseEntity<Review> editReview(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable String reviewId,
+            @RequestBody Review reviewRequest) {
+        return ResponseEntity.ok(reviewService.editReview(principal.getId(), reviewId, reviewRequest));
     }
 
     @PutMapping("/{reviewId}/like")
-    public ResponseEntity<Review> likeReview(@PathVariable String reviewId) {
-        Review review = reviewRepository.findById(reviewId)
-                .orElseThrow(() -> new RuntimeException("Review not found"));
-        review.setLikes(review.getLikes() + 1);
-        return ResponseEntity.ok(reviewRepository.save(review));
+    public ResponseEntity<Map<String, Object>> likeReview(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable String reviewId,
+            HttpServletRequest request) {
+        if (!reviewLikeService.reviewExists(reviewId)) {
+            return ResponseEntity.notFound().build();
+        }
+        String voter = principal != null ? principal.getEmail() : "ip:" + clientAddressResolver.resolve(request);
+        boolean counted = reviewLikeService.like(reviewId, voter);
+        return ResponseEntity.ok(Map.of(
+                "id", reviewId,
+                "counted", counted
+        ));
     }
 }
@@ -1,41 +1,186 @@
 package com.moviebooking.controller;
 
+import com.moviebooking.dto.response.CursorPage;
+import com.moviebooking.dto.response.ShowCalendarResponse;
+import com.moviebooking.dto.response.ShowSearchResponse;
+import com.moviebooking.dto.response.ShowtimeGridResponse;
 import com.moviebooking.entity.supabase.Show;
 import com.moviebooking.repository.supabase.ShowRepository;
+import com.moviebooking.service.CatalogPagingService;
+import com.moviebooking.service.CatalogResponseCache;
+import com.moviebooking.service.CatalogVersionService;
+import com.moviebooking.service.ShowCalendarService;
+import com.moviebooking.service.ShowFacetService;
+import com.moviebooking.service.ShowtimeGridService;
+import com.moviebooking.service.UpcomingShowIndex;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/shows")
 @RequiredArgsConstructor
 public class ShowController {
 
+    private static final CatalogVersionService.Collection SHOWS = CatalogVersionService.Collection.SHOWS;
+
     private final ShowRepository showRepository;
+    private final CatalogPagingService catalogPagingService;
+    private final CatalogResponseCache responseCache;
+    private final ShowtimeGridService showtimeGridService;
+    private final UpcomingShowIndex upcomingShowIndex;
+    private final ShowFacetService showFacetService;
+    private final ShowCalendarService showCalendarService;
 
     @GetMapping("/movie/{movieId}")
-    public ResponseEntity<List<Show>> getShowsForMovie(
+    public ResponseEntity<byte[]> getShowsForMovie(
+            HttpServletRequest request,
             @PathVariable String movieId,
             @RequestParam(required = false) String date) {
-        if (date != null && !date.isEmpty()) {
-            LocalDate showDate = LocalDate.parse(date);
-            return ResponseEntity.ok(showRepository.findByMovieIdAndDate(movieId, showDate));
+        String key = "shows:movie:" + movieId + ":" + date;
+        return responseCache.respond(request, key, () -> {
+            if (date != null && !date.isEmpty()) {
+                LocalDate showDate = LocalDate.parse(date);
+                return showRepository.findByMovieIdAndDate(movieId, showDate);
+            }
+            return showRepository.findByMovieId(movieId);
+        }, SHOWS);
+    }
+
+    /**
+     * Movies x theaters x showtimes for a city on one date, with availability and starting price
+     */
+    @GetMapping("/grid")
+    public ResponseEntity<ShowtimeGridResponse> getShowtimeGrid(
+            @RequestParam String city,
+            @RequestParam(required = false) String date) {
+        return ResponseEntity.ok(showtimeGridService.getGrid(city, dateOrToday(date)));
+    }
+
+    /**
+     * Shows in a city starting within the next few hours
+     */
+    @GetMapping("/upcoming")
+    public ResponseEntity<List<Show>> getUpcomingShows(
+            @RequestParam String city,
+            @RequestParam(defaultValue = "3") int hours) {
+        return ResponseEntity.ok(upcomingShowIndex.findStartingWithin(city, Math.max(1, Math.min(hours, 48))));
+    }
+
+    /**
+     * Shows in a city starting in [from, to), e.g. from=2026-10-20T18:00&to=2026-10-20T23:00
+     */
+    @GetMapping("/window")
+    public ResponseEntity<List<Show>> getShowsInWindow(
+            @RequestParam String city,
+            @RequestParam String from,
+            @RequestParam String to) {
+        LocalDateTime start;
+        LocalDateTime end;
+        try {
+            start = LocalDateTime.parse(from);
+            end = LocalDateTime.parse(to);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from and to must be ISO date-times");
+        }
+        if (end.isBefore(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to must not be before from");
         }
-        return ResponseEntity.ok(showRepository.findByMovieId(movieId));
+        return ResponseEntity.ok(upcomingShowIndex.findStartingBetween(city, start, end));
+    }
+
+    /**
+     * Shows in a city on a date for one part of the day: MORNING, AFTERNOON, EVENING or NIGHT
+     */
+    @GetMapping("/time-of-day")
+    public ResponseEntity<List<Show>> getShowsByTimeOfDay(
+            @RequestParam String city,
+            @RequestParam(required = false) String date,
+            @RequestParam UpcomingShowIndex.TimeOfDay slot) {
+        return ResponseEntity.ok(upcomingShowIndex.findByTimeOfDay(city, dateOrToday(date), slot));
+    }
+
+    /**
+     * Faceted search over upcoming active shows; each parameter may be repeated to select several values
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ShowSearchResponse> searchShows(
+            @RequestParam(required = false) List<String> city,
+            @RequestParam(required = false) List<String> date,
+            @RequestParam(required = false) List<String> format,
+            @RequestParam(required = false) List<String> language,
+            @RequestParam(required = false) List<String> facility,
+            @RequestParam(required = false) List<String> priceBand,
+            @RequestParam(required = false) List<String> timeOfDay,
+            @RequestParam(defaultValue = "50") int limit) {
+        Map<ShowFacetService.Dimension, Collection<String>> filters = new EnumMap<>(ShowFacetService.Dimension.class);
+        putIfPresent(filters, ShowFacetService.Dimension.CITY, city);
+        putIfPresent(filters, ShowFacetService.Dimension.DATE, date);
+        putIfPresent(filters, ShowFacetService.Dimension.FORMAT, format);
+        putIfPresent(filters, ShowFacetService.Dimension.LANGUAGE, language);
+        putIfPresent(filters, ShowFacetService.Dimension.FACILITY, facility);
+        putIfPresent(filters, ShowFacetService.Dimension.PRICE_BAND, priceBand);
+        putIfPresent(filters, ShowFacetService.Dimension.TIME_OF_DAY, timeOfDay);
+        return ResponseEntity.ok(showFacetService.search(filters, Math.max(1, Math.min(limit, 200))));
+    }
+
+    private void putIfPresent(Map<ShowFacetService.Dimension, Collection<String>> filters,
+                              ShowFacetService.Dimension dimension, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            filters.put(dimension, values);
+        }
+    }
+
+    /**
+     * Dates with active shows for a movie over the next days, with an availability level per date
+     */
+    @GetMapping("/movie/{movieId}/calendar")
+    public ResponseEntity<ShowCalendarResponse> getShowCalendar(
+            @PathVariable String movieId,
+            @RequestParam(required = false) String city,
+            @RequestParam(defaultValue = "14") int days) {
+        return ResponseEntity.ok(showCalendarService.getCalendar(movieId, city, days));
     }
 
     @GetMapping("/{showId}")
-    public ResponseEntity<Show> getShowById(@PathVariable String showId) {
-        return showRepository.findById(showId)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getShowById(HttpServletRequest request, @PathVariable String showId) {
+        return responseCache.respond(request, "shows:id:" + showId,
+                () -> showRepository.findById(showId).orElse(null), SHOWS);
     }
 
     @GetMapping("/theater/{theaterId}")
-    public ResponseEntity<List<Show>> getShowsForTheater(@PathVariable String theaterId) {
-        return ResponseEntity.ok(showRepository.findByTheaterId(theaterId));
+    public ResponseEntity<byte[]> getShowsForTheater(HttpServletRequest request, @PathVariable String theaterId) {
+        return responseCache.respond(request, "shows:theater:" + theaterId,
+                () -> showRepository.findByTheaterId(theaterId), SHOWS);
+    }
+
+    @GetMapping("/theater/{theaterId}/paged")
+    public ResponseEntity<CursorPage<Show>> getShowsForTheaterPaged(
+            @PathVariable String theaterId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(catalogPagingService.getShowsForTheater(theaterId, cursor, limit));
+    }
+
+    private static LocalDate dateOrToday(String date) {
+        if (date == null || date.isEmpty()) {
+            return LocalDate.now();
+        }
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "date must be an ISO date");
+        }
     }
 }
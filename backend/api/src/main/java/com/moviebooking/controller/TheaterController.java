@@ -1,72 +1,99 @@
 package com.moviebooking.controller;
 
-import com.moviebooking.entity.supabase.Show;
+import com.moviebooking.dto.response.CursorPage;
+import com.moviebooking.entity.supabase.Movie;
 import com.moviebooking.entity.supabase.Theater;
-import com.moviebooking.repository.supabase.ShowRepository;
 import com.moviebooking.repository.supabase.TheaterRepository;
+import com.moviebooking.service.CatalogPagingService;
+import com.moviebooking.service.CatalogResponseCache;
+import com.moviebooking.service.CatalogVersionService;
+import com.moviebooking.service.TheaterGeoIndexService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/theaters")
 @RequiredArgsConstructor
 public class TheaterController {
 
+    private static final CatalogVersionService.Collection THEATERS = CatalogVersionService.Collection.THEATERS;
+    private static final CatalogVersionService.Collection SHOWS = CatalogVersionService.Collection.SHOWS;
+
     private final TheaterRepository theaterRepository;
-    private final ShowRepository showRepository;
+    private final CatalogPagingService catalogPagingService;
+    private final CatalogResponseCache responseCache;
+    private final TheaterGeoIndexService geoIndexService;
 
     @GetMapping
-    public ResponseEntity<List<Theater>> getAllTheaters() {
-        return ResponseEntity.ok(theaterRepository.findAll());
+    public ResponseEntity<byte[]> getAllTheaters(HttpServletRequest request) {
+        return responseCache.respond(request, "theaters:all", theaterRepository::findAll, THEATERS);
+    }
+
+    @GetMapping("/paged")
+    public ResponseEntity<CursorPage<Theater>> getTheatersPaged(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(catalogPagingService.getTheaters(cursor, limit));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<TheaterGeoIndexService.NearbyTheater>> getNearestTheaters(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(required = false) String facility,
+            @RequestParam(required = false) Movie.MovieFormat format) {
+        return ResponseEntity.ok(geoIndexService.findNearest(lat, lng, Math.min(k, 100), facility, format));
+    }
+
+    @GetMapping("/within")
+    public ResponseEntity<List<TheaterGeoIndexService.NearbyTheater>> getTheatersWithinRadius(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String facility,
+            @RequestParam(required = false) Movie.MovieFormat format) {
+        return ResponseEntity.ok(geoIndexService.findWithinRadius(lat, lng, radiusKm, Math.min(limit, 500), facility, format));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Theater> getTheaterById(@PathVariable String id) {
-        return theaterRepository.findById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getTheaterById(HttpServletRequest request, @PathVariable String id) {
+        return responseCache.respond(request, "theaters:id:" + id,
+                () -> theaterRepository.findById(id).orElse(null), THEATERS);
     }
 
     @GetMapping("/city/{city}")
-    public ResponseEntity<List<Theater>> getTheatersByCity(@PathVariable String city) {
-        return ResponseEntity.ok(theaterRepository.findByCityIgnoreCase(city));
+    public ResponseEntity<byte[]> getTheatersByCity(HttpServletRequest request, @PathVariable String city) {
+        return responseCache.respond(request, "theaters:city:" + city.toLowerCase(),
+                () -> theaterRepository.findByCityIgnoreCase(city), THEATERS);
     }
 
     @GetMapping("/movie/{movieId}")
-    public ResponseEntity<List<Theater>> getTheatersForMovie(
+    public ResponseEntity<byte[]> getTheatersForMovie(
+            HttpServletRequest request,
             @PathVariable String movieId,
             @RequestParam(required = false) String date,
             @RequestParam(required = false) String city) {
+        String key = "theaters:movie:" + movieId + ":" + date + ":" + city;
+        return responseCache.respond(request, key, () -> findTheatersForMovie(movieId, date, city), THEATERS, SHOWS);
+    }
 
-        List<Show> shows;
-        if (date != null && !date.isEmpty()) {
-            LocalDate showDate = LocalDate.parse(date);
-            shows = showRepository.findByMovieIdAndDate(movieId, showDate);
-        } else {
-            shows = showRepository.findByMovieId(movieId);
-        }
-
-        // Get unique theater IDs from shows
-        List<String> theaterIds = shows.stream()
-                .map(Show::getTheaterId)
-                .distinct()
-                .collect(Collectors.toList());
-
-        // Fetch theaters
-        List<Theater> theaters = theaterRepository.findAllById(theaterIds);
-
-        // Filter by city if provided
-        if (city != null && !city.isEmpty()) {
-            theaters = theaters.stream()
-                    .filter(t -> t.getCity().equalsIgnoreCase(city))
-                    .collect(Collectors.toList());
+    private List<Theater> findTheatersForMovie(String movieId, String date, String city) {
+        LocalDate showDate = date != null && !date.isEmpty() ? LocalDate.parse(date) : null;
+        boolean byCity = city != null && !city.isEmpty();
+        if (showDate == null) {
+            return byCity
+                    ? theaterRepository.findTheatersShowingMovieInCity(movieId, city)
+                    : theaterRepository.findTheatersShowingMovie(movieId);
         }
-
-        return ResponseEntity.ok(theaters);
+        return byCity
+                ? theaterRepository.findTheatersShowingMovieInCityOnDate(movieId, showDate, city)
+                : theaterRepository.findTheatersShowingMovieOnDate(movieId, showDate);
     }
 }
@@ -6,11 +6,12 @@ import com.moviebooking.entity.supabase.User;
 import com.moviebooking.repository.supabase.AddressRepository;
 import com.moviebooking.repository.supabase.SavedCardRepository;
 import com.moviebooking.repository.supabase.UserRepository;
+import com.moviebooking.security.AuthenticatedUser;
 import com.moviebooking.security.UserDetailsServiceImpl;
+import com.moviebooking.service.AuthService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -25,11 +26,12 @@ public class UserController {
     private final AddressRepository addressRepository;
     private final SavedCardRepository savedCardRepository;
     private final UserDetailsServiceImpl userDetailsService;
+    private final AuthService authService;
 
     @GetMapping("/profile")
     public ResponseEntity<Map<String, Object>> getProfile(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User user = userDetailsService.getUserByEmail(userDetails.getUsername());
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        User user = userDetailsService.getUserById(principal.getId());
         return ResponseEntity.ok(Map.of(
                 "id", user.getId(),
                 "email", user.getEmail(),
@@ -41,9 +43,10 @@ public class UserController {
 
     @PutMapping("/profile")
     public ResponseEntity<User> updateProfile(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestBody Map<String, Object> profileData) {
-        User user = userDetailsService.getUserByEmail(userDetails.getUsername());
+        User user = userRepository.findById(principal.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
         
         if (profileData.containsKey("fullName")) {
             user.setFullName((String) profileData.get("fullName"));
@@ -55,29 +58,35 @@ public class UserController {
             user.setAge((Integer) profileData.get("age"));
         }
         
-        return ResponseEntity.ok(userRepository.save(user));
+        User saved = userRepository.save(user);
+        userDetailsService.evictUser(saved.getId());
+        return ResponseEntity.ok(saved);
+    }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutEverywhere(@AuthenticationPrincipal AuthenticatedUser principal) {
+        authService.logoutEverywhere(principal.getId(), principal.getEmail());
+        return ResponseEntity.ok().build();
     }
 
     // Addresses
     @GetMapping("/addresses")
     public ResponseEntity<List<Address>> getAddresses(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User user = userDetailsService.getUserByEmail(userDetails.getUsername());
-        return ResponseEntity.ok(addressRepository.findByUserId(user.getId()));
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(addressRepository.findByUserId(principal.getId()));
     }
 
     @PostMapping("/addresses")
     public ResponseEntity<Address> addAddress(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestBody Address address) {
-        User user = userDetailsService.getUserByEmail(userDetails.getUsername());
-        address.setUser(user);
+        address.setUser(userRepository.getReferenceById(principal.getId()));
         return ResponseEntity.ok(addressRepository.save(address));
     }
 
     @DeleteMapping("/addresses/{id}")
     public ResponseEntity<Void> deleteAddress(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable Long id) {
         addressRepository.deleteById(id);
         return ResponseEntity.ok().build();
@@ -86,17 +95,15 @@ public class UserController {
     // Saved Cards
     @GetMapping("/cards")
     public ResponseEntity<List<SavedCard>> getSavedCards(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        User user = userDetailsService.getUserByEmail(userDetails.getUsername());
-        return ResponseEntity.ok(savedCardRepository.findByUserId(user.getId()));
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(savedCardRepository.findByUserId(principal.getId()));
     }
 
     @PostMapping("/cards")
     public ResponseEntity<SavedCard> saveCard(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestBody SavedCard card) {
-        User user = userDetailsService.getUserByEmail(userDetails.getUsername());
-        card.setUser(user);
+        card.setUser(userRepository.getReferenceById(principal.getId()));
         return ResponseEntity.ok(savedCardRepository.save(card));
     }
 
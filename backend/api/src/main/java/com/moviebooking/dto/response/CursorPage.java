@@ -0,0 +1,91 @@
+package com.moviebooking.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * One page of a keyset-paginated listing.
+ * The cursor is an opaque token holding the sort key of the last item returned.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    // Neither is in the URL-safe base64 alphabet, so they cannot occur inside an encoded part
+    private static final String SEPARATOR = ".";
+    private static final String NULL_PART = "~";
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    // Only set by listings that can estimate their size without a COUNT query
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long approximateTotal;
+
+    /**
+     * Each part is base64-encoded on its own, so any text (separators included) survives, and a
+     * null part is written as a marker of its own rather than as the text "null"
+     */
+    public static String encodeCursor(String... keyParts) {
+        StringJoiner cursor = new StringJoiner(SEPARATOR);
+        for (String part : keyParts) {
+            cursor.add(part == null ? NULL_PART
+                    : Base64.getUrlEncoder().withoutPadding().encodeToString(part.getBytes(StandardCharsets.UTF_8)));
+        }
+        return cursor.toString();
+    }
+
+    /**
+     * Split a cursor back into its key parts, null parts included. A cursor that does not decode
+     * was tampered with or comes from an older format, so it is rejected as a bad request.
+     */
+    public static String[] decodeCursor(String cursor, int expectedParts) {
+        String[] parts = cursor.split(Pattern.quote(SEPARATOR), -1);
+        if (parts.length != expectedParts) {
+            throw invalidCursor();
+        }
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = NULL_PART.equals(parts[i]) ? null
+                        : new String(Base64.getUrlDecoder().decode(parts[i]), StandardCharsets.UTF_8);
+            }
+        } catch (IllegalArgumentException e) {
+            throw invalidCursor();
+        }
+        return parts;
+    }
+
+    /**
+     * Parse one decoded key part, rejecting values that are null or do not parse as a bad request
+     */
+    public static <K> K parseKey(String part, Function<String, K> parser) {
+        if (part == null) {
+            throw invalidCursor();
+        }
+        try {
+            return parser.apply(part);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw invalidCursor();
+        }
+    }
+
+    private static ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
@@ -0,0 +1,27 @@
+package com.moviebooking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowCalendarResponse {
+    private String movieId;
+    private String city;
+    private List<Day> days;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Day {
+        private String date;
+        private long showCount;
+        private String availability;
+    }
+}
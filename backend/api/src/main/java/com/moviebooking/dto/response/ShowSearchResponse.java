@@ -0,0 +1,20 @@
+package com.moviebooking.dto.response;
+
+import com.moviebooking.entity.supabase.Show;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowSearchResponse {
+    private long total;
+    private List<Show> shows;
+    // dimension -> value -> number of shows matching every other active filter
+    private Map<String, Map<String, Long>> facets;
+}
@@ -0,0 +1,55 @@
+package com.moviebooking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowtimeGridResponse {
+    private String city;
+    private String date;
+    private List<MovieRow> movies;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MovieRow {
+        private String movieId;
+        private String title;
+        private String posterUrl;
+        private String certificate;
+        private Integer duration;
+        private List<TheaterRow> theaters;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TheaterRow {
+        private String theaterId;
+        private String name;
+        private String address;
+        private List<Showtime> showtimes;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Showtime {
+        private String showId;
+        private String time;
+        private String format;
+        private String language;
+        private String availability;
+        private BigDecimal startingPrice;
+    }
+}
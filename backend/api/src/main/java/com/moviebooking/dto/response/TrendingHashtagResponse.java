@@ -0,0 +1,16 @@
+package com.moviebooking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingHashtagResponse {
+    private String hashtag;
+    private double score;      // decayed mention count; one fresh mention adds 1
+    private double minScore;   // lower bound after Space-Saving overestimation
+}
@@ -28,11 +28,19 @@ public class ConversationLog {
     @Column(name = "user_id")
     private Long userId;
 
+    // Legacy: messages are appended to conversation_messages and this column is emptied at startup
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(columnDefinition = "jsonb")
     @Builder.Default
     private List<Message> messages = new ArrayList<>();
 
+    // Rolling summary of every message up to and including summarizedThroughSeq
+    @Column(columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(name = "summarized_through_seq")
+    private Long summarizedThroughSeq;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -0,0 +1,77 @@
+package com.moviebooking.entity.supabase;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One chat message, stored append-only and ordered by seq within its session.
+ * Rows are never updated, so saving always inserts and a clash on (session_id, seq)
+ * surfaces as a duplicate key rather than silently overwriting another turn.
+ */
+@Entity
+@Table(name = "conversation_messages")
+@IdClass(ConversationMessage.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationMessage implements Persistable<ConversationMessage.Key> {
+
+    @Id
+    @Column(name = "session_id")
+    private String sessionId;
+
+    @Id
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ConversationLog.MessageRole role;
+
+    @Column(columnDefinition = "TEXT")
+    private String content;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "function_calls", columnDefinition = "jsonb")
+    private List<ConversationLog.FunctionCall> functionCalls;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // What produced an assistant message; null on user messages and on rows from before it was recorded
+    @Enumerated(EnumType.STRING)
+    @Column(name = "answered_by")
+    private AnswerSource answeredBy;
+
+    public enum AnswerSource {
+        MODEL,      // generated by the model
+        FAST_PATH,  // templated by IntentRouter without a model call
+        FALLBACK    // shown because the model failed or was unavailable
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(sessionId, seq);
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String sessionId;
+        private Long seq;
+    }
+}
@@ -1,5 +1,6 @@
 package com.moviebooking.entity.supabase;
 
+import com.moviebooking.service.CatalogChangeListener;
 import lombok.*;
 
 import jakarta.persistence.*;
@@ -11,7 +12,11 @@ import java.util.List;
 import java.util.Map;
 
 @Entity
-@Table(name = "movies")
+@EntityListeners(CatalogChangeListener.class)
+@Table(name = "movies", indexes = {
+    @Index(name = "idx_movies_release_date_id", columnList = "release_date, id"),
+    @Index(name = "idx_movies_title_id", columnList = "title, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -9,7 +9,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+    @Index(name = "idx_reviews_movie_created_id", columnList = "movie_id, created_at DESC, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
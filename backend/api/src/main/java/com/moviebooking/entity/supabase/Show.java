@@ -1,5 +1,6 @@
 package com.moviebooking.entity.supabase;
 
+import com.moviebooking.service.CatalogChangeListener;
 import lombok.*;
 
 import jakarta.persistence.*;
@@ -7,10 +8,17 @@ import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.Map;
 
 @Entity
-@Table(name = "shows")
+@EntityListeners(CatalogChangeListener.class)
+@Table(name = "shows", indexes = {
+    @Index(name = "idx_shows_theater_starts_at_id", columnList = "theater_id, starts_at, id"),
+    @Index(name = "idx_shows_movie_date_theater", columnList = "movie_id, show_date, theater_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -36,6 +44,10 @@ public class Show {
     @Column(name = "show_time")
     private String showTime;  // e.g., "14:30", "18:00"
 
+    // show_date + show_time as a real timestamp, so time-window queries can use an index
+    @Column(name = "starts_at")
+    private LocalDateTime startsAt;
+
     @Enumerated(EnumType.STRING)
     private Movie.MovieFormat format;
 
@@ -61,4 +73,24 @@ public class Show {
 
     @Column(name = "theater_city")
     private String theaterCity;
+
+    @PrePersist
+    @PreUpdate
+    protected void syncStartsAt() {
+        startsAt = parseStartsAt(showDate, showTime);
+    }
+
+    /**
+     * H:MM or HH:MM, optionally with seconds (ShowRepository.backfillStartsAt accepts the same set)
+     */
+    public static LocalDateTime parseStartsAt(LocalDate date, String time) {
+        if (date == null || time == null) {
+            return null;
+        }
+        try {
+            return date.atTime(LocalTime.parse(time.indexOf(':') == 1 ? "0" + time : time));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.moviebooking.entity.supabase;
 
+import com.moviebooking.service.CatalogChangeListener;
 import lombok.*;
 
 import jakarta.persistence.*;
@@ -8,7 +9,10 @@ import org.hibernate.type.SqlTypes;
 import java.util.List;
 
 @Entity
-@Table(name = "theaters")
+@EntityListeners(CatalogChangeListener.class)
+@Table(name = "theaters", indexes = {
+    @Index(name = "idx_theaters_name_id", columnList = "name, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,16 @@
+package com.moviebooking.event;
+
+import java.util.List;
+
+/**
+ * Published when a booking is paid for and its seats are marked BOOKED.
+ * Listeners that maintain in-memory views should use AFTER_COMMIT so a rolled back booking is never seen.
+ */
+public record BookingCompletedEvent(
+        Long bookingId,
+        Long userId,
+        String movieId,
+        String showId,
+        String theaterId,
+        List<Long> seatIds
+) {}
@@ -0,0 +1,9 @@
+package com.moviebooking.event;
+
+import com.moviebooking.entity.supabase.Review;
+
+/**
+ * Published when a review is posted (created) or edited.
+ * previousRating is the rating before an edit, which may be null for older reviews; null for a new review.
+ */
+public record ReviewChangedEvent(Review review, Integer previousRating, boolean created) {}
@@ -0,0 +1,8 @@
+package com.moviebooking.event;
+
+import java.util.Collection;
+
+/**
+ * Published when seats of one or more shows change status (locked, booked or released)
+ */
+public record SeatsChangedEvent(Collection<String> showIds) {}
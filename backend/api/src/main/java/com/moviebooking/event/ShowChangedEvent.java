@@ -0,0 +1,8 @@
+package com.moviebooking.event;
+
+import com.moviebooking.entity.supabase.Show;
+
+/**
+ * Published when a show row is inserted, updated or deleted through JPA
+ */
+public record ShowChangedEvent(Show show, boolean removed) {}
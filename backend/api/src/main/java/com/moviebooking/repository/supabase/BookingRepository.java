@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,4 +24,12 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     @Query("SELECT COUNT(bs) FROM BookingSeat bs WHERE bs.booking.user.id = :userId AND bs.booking.paymentStatus = 'PENDING'")
     Long countPendingSeatsForUser(@Param("userId") Long userId);
+
+    @Query("SELECT b.movieId, COUNT(bs) FROM BookingSeat bs JOIN bs.booking b " +
+           "WHERE b.paymentStatus = 'COMPLETED' AND b.bookedAt >= :since GROUP BY b.movieId")
+    List<Object[]> countSeatsBookedPerMovieSince(@Param("since") LocalDateTime since);
+
+    // Distinct (movie_id, user_id) pairs with a completed booking, for the verified-viewer index
+    @Query("SELECT DISTINCT b.movieId, b.user.id FROM Booking b WHERE b.paymentStatus = 'COMPLETED'")
+    List<Object[]> findCompletedViewerPairs();
 }
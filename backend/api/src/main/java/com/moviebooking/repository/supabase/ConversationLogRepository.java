@@ -2,7 +2,12 @@ package com.moviebooking.repository.supabase;
 
 import com.moviebooking.entity.supabase.ConversationLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +19,27 @@ public interface ConversationLogRepository extends JpaRepository<ConversationLog
     List<ConversationLog> findByUserId(Long userId);
 
     List<ConversationLog> findByUserIdOrderByLastUpdatedAtDesc(Long userId);
+
+    // Session metadata only; messages live in conversation_messages
+    @Modifying
+    @Query("UPDATE ConversationLog c SET c.lastUpdatedAt = :at, c.userId = COALESCE(c.userId, :userId) " +
+           "WHERE c.sessionId = :sessionId")
+    int touch(@Param("sessionId") String sessionId, @Param("userId") Long userId, @Param("at") LocalDateTime at);
+
+    // Logs still holding messages in the legacy jsonb column, walked in id order
+    @Query(value = "SELECT * FROM conversation_logs WHERE id > :afterId AND messages IS NOT NULL " +
+                   "AND jsonb_array_length(messages) > 0 ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<ConversationLog> findWithLegacyMessages(@Param("afterId") String afterId, @Param("limit") int limit);
+
+    // {summary, summarizedThroughSeq} without loading the legacy messages column
+    @Query("SELECT c.summary, c.summarizedThroughSeq FROM ConversationLog c WHERE c.sessionId = :sessionId")
+    List<Object[]> findSummary(@Param("sessionId") String sessionId);
+
+    // Only advances a summary built from the state the caller read, so concurrent refreshes cannot regress it
+    @Modifying
+    @Query("UPDATE ConversationLog c SET c.summary = :summary, c.summarizedThroughSeq = :throughSeq " +
+           "WHERE c.sessionId = :sessionId AND COALESCE(c.summarizedThroughSeq, :noSummarySeq) = :expectedSeq")
+    int updateSummary(@Param("sessionId") String sessionId, @Param("summary") String summary,
+                      @Param("throughSeq") long throughSeq, @Param("expectedSeq") long expectedSeq,
+                      @Param("noSummarySeq") long noSummarySeq);
 }
@@ -0,0 +1,34 @@
+package com.moviebooking.repository.supabase;
+
+import com.moviebooking.entity.supabase.ConversationMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ConversationMessageRepository extends JpaRepository<ConversationMessage, ConversationMessage.Key> {
+
+    // Messages not yet folded into the rolling summary, newest first; callers reverse for chronological order
+    @Query("SELECT m FROM ConversationMessage m WHERE m.sessionId = :sessionId AND m.seq > :afterSeq ORDER BY m.seq DESC")
+    List<ConversationMessage> findTailAfter(@Param("sessionId") String sessionId, @Param("afterSeq") long afterSeq,
+                                            Pageable pageable);
+
+    @Query("SELECT m FROM ConversationMessage m WHERE m.sessionId = :sessionId " +
+           "AND m.seq > :afterSeq AND m.seq <= :throughSeq ORDER BY m.seq")
+    List<ConversationMessage> findRange(@Param("sessionId") String sessionId, @Param("afterSeq") long afterSeq,
+                                        @Param("throughSeq") long throughSeq, Pageable pageable);
+
+    // Every message grouped by session in conversation order, for offline analysis
+    @Query("SELECT m FROM ConversationMessage m ORDER BY m.sessionId, m.seq")
+    List<ConversationMessage> findAllInConversationOrder(Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(m.seq), 0) FROM ConversationMessage m WHERE m.sessionId = :sessionId")
+    long findLastSeq(@Param("sessionId") String sessionId);
+
+    @Query("SELECT COALESCE(MIN(m.seq), 1) FROM ConversationMessage m WHERE m.sessionId = :sessionId")
+    long findFirstSeq(@Param("sessionId") String sessionId);
+}
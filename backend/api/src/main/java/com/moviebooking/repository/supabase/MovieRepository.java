@@ -1,7 +1,9 @@
 package com.moviebooking.repository.supabase;
 
 import com.moviebooking.entity.supabase.Movie;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -40,4 +42,40 @@ public interface MovieRepository extends JpaRepository<Movie, String> {
 
     @Query("SELECT m FROM Movie m WHERE m.releaseDate > :date")
     List<Movie> findComingSoon(@Param("date") LocalDate date);
+
+    // Keyset pagination: (rating, id) descending, served by idx_movies_rating_avg_id (db/indexes.sql)
+    @Query(value = "SELECT * FROM movies m WHERE COALESCE((m.rating->>'average')::double precision, 0) >= :minRating " +
+                   "ORDER BY COALESCE((m.rating->>'average')::double precision, 0) DESC, m.id DESC", nativeQuery = true)
+    List<Movie> findFirstPageByRating(@Param("minRating") Double minRating, Pageable pageable);
+
+    @Query(value = "SELECT * FROM movies m WHERE COALESCE((m.rating->>'average')::double precision, 0) >= :minRating " +
+                   "AND (COALESCE((m.rating->>'average')::double precision, 0), m.id) < (:rating, :id) " +
+                   "ORDER BY COALESCE((m.rating->>'average')::double precision, 0) DESC, m.id DESC", nativeQuery = true)
+    List<Movie> findPageByRatingAfter(@Param("minRating") Double minRating, @Param("rating") Double rating,
+                                      @Param("id") String id, Pageable pageable);
+
+    // Keyset pagination: (release_date, id) descending
+    @Query(value = "SELECT * FROM movies m ORDER BY COALESCE(m.release_date, DATE '0001-01-01') DESC, m.id DESC", nativeQuery = true)
+    List<Movie> findFirstPageByReleaseDate(Pageable pageable);
+
+    @Query(value = "SELECT * FROM movies m WHERE (COALESCE(m.release_date, DATE '0001-01-01'), m.id) < (:releaseDate, :id) " +
+                   "ORDER BY COALESCE(m.release_date, DATE '0001-01-01') DESC, m.id DESC", nativeQuery = true)
+    List<Movie> findPageByReleaseDateAfter(@Param("releaseDate") LocalDate releaseDate, @Param("id") String id, Pageable pageable);
+
+    // Keyset pagination: (title, id) ascending, untitled movies last as Postgres sorts NULLs
+    @Query("SELECT m FROM Movie m ORDER BY m.title ASC, m.id ASC")
+    List<Movie> findFirstPageByTitle(Pageable pageable);
+
+    @Query("SELECT m FROM Movie m WHERE m.title > :title OR (m.title = :title AND m.id > :id) OR m.title IS NULL " +
+           "ORDER BY m.title ASC, m.id ASC")
+    List<Movie> findPageByTitleAfter(@Param("title") String title, @Param("id") String id, Pageable pageable);
+
+    @Query("SELECT m FROM Movie m WHERE m.title IS NULL AND m.id > :id ORDER BY m.id ASC")
+    List<Movie> findPageByNullTitleAfter(@Param("id") String id, Pageable pageable);
+
+    // Writes only the rating, so an edit to the rest of the movie made meanwhile is not overwritten
+    @Modifying
+    @Query(value = "UPDATE movies SET rating = COALESCE(rating, '{}'::jsonb) || " +
+                   "jsonb_build_object('average', :average, 'count', :count) WHERE id = :id", nativeQuery = true)
+    int updateRating(@Param("id") String id, @Param("average") double average, @Param("count") long count);
 }
@@ -4,9 +4,13 @@ import com.moviebooking.entity.supabase.Review;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +21,8 @@ public interface ReviewRepository extends JpaRepository<Review, String> {
 
     Page<Review> findByMovieIdOrderByCreatedAtDesc(String movieId, Pageable pageable);
 
+    Page<Review> findByMovieIdAndIsVerifiedBookingTrueOrderByCreatedAtDesc(String movieId, Pageable pageable);
+
     List<Review> findByUserId(Long userId);
 
     Optional<Review> findByMovieIdAndUserId(String movieId, Long userId);
@@ -29,4 +35,37 @@ public interface ReviewRepository extends JpaRepository<Review, String> {
 
     @Query(value = "SELECT * FROM reviews r WHERE r.movie_id = :movieId AND EXISTS (SELECT 1 FROM jsonb_array_elements_text(r.hashtags) AS h WHERE h IN (:hashtags))", nativeQuery = true)
     List<Review> findByMovieIdAndHashtags(@Param("movieId") String movieId, @Param("hashtags") List<String> hashtags);
+
+    // (movie_id, rating, count) rows used to rebuild the in-memory review aggregates
+    @Query("SELECT r.movieId, r.rating, COUNT(r) FROM Review r WHERE r.rating IS NOT NULL GROUP BY r.movieId, r.rating")
+    List<Object[]> countByMovieAndRating();
+
+    @Modifying
+    @Query("UPDATE Review r SET r.likes = COALESCE(r.likes, 0) + :delta WHERE r.id IN :ids")
+    int addLikes(@Param("ids") Collection<String> ids, @Param("delta") long delta);
+
+    // (movie_id, hashtags, created_at) rows, oldest first, to seed the trending hashtag tracker
+    @Query("SELECT r.movieId, r.hashtags, r.createdAt FROM Review r WHERE r.createdAt >= :since AND r.hashtags IS NOT NULL ORDER BY r.createdAt")
+    List<Object[]> findHashtagsSince(@Param("since") LocalDateTime since);
+
+    // Keyset feed: newest first, ties broken by id, matching idx_reviews_movie_created_id
+    @Query("SELECT r FROM Review r WHERE r.movieId = :movieId AND r.createdAt IS NOT NULL " +
+           "ORDER BY r.createdAt DESC, r.id ASC")
+    List<Review> findFeedFirstPage(@Param("movieId") String movieId, Pageable pageable);
+
+    @Query("SELECT r FROM Review r WHERE r.movieId = :movieId AND (r.createdAt < :createdAt " +
+           "OR (r.createdAt = :createdAt AND r.id > :id)) " +
+           "ORDER BY r.createdAt DESC, r.id ASC")
+    List<Review> findFeedPageAfter(@Param("movieId") String movieId, @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") String id, Pageable pageable);
+
+    @Query("SELECT r FROM Review r WHERE r.movieId = :movieId AND r.isVerifiedBooking = true AND r.createdAt IS NOT NULL " +
+           "ORDER BY r.createdAt DESC, r.id ASC")
+    List<Review> findVerifiedFeedFirstPage(@Param("movieId") String movieId, Pageable pageable);
+
+    @Query("SELECT r FROM Review r WHERE r.movieId = :movieId AND r.isVerifiedBooking = true AND (r.createdAt < :createdAt " +
+           "OR (r.createdAt = :createdAt AND r.id > :id)) " +
+           "ORDER BY r.createdAt DESC, r.id ASC")
+    List<Review> findVerifiedFeedPageAfter(@Param("movieId") String movieId, @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") String id, Pageable pageable);
 }
@@ -2,11 +2,14 @@ package com.moviebooking.repository.supabase;
 
 import com.moviebooking.entity.supabase.Movie;
 import com.moviebooking.entity.supabase.Show;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -30,6 +33,49 @@ public interface ShowRepository extends JpaRepository<Show, String> {
     @Query("SELECT s FROM Show s WHERE s.showDate >= :startDate AND s.showDate <= :endDate AND s.isActive = true")
     List<Show> findByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT s FROM Show s WHERE s.theaterCity = :city AND s.showDate = :date AND s.isActive = true")
+    // Case-insensitive to match how callers key their caches; served by idx_shows_city_lower_date (db/indexes.sql)
+    @Query("SELECT s FROM Show s WHERE LOWER(s.theaterCity) = LOWER(:city) AND s.showDate = :date AND s.isActive = true")
     List<Show> findByCityAndDate(@Param("city") String city, @Param("date") LocalDate date);
+
+    // Keyset pagination: (starts_at, id) ascending
+    @Query("SELECT s FROM Show s WHERE s.theaterId = :theaterId AND s.startsAt IS NOT NULL ORDER BY s.startsAt ASC, s.id ASC")
+    List<Show> findFirstPageByTheaterId(@Param("theaterId") String theaterId, Pageable pageable);
+
+    @Query("SELECT s FROM Show s WHERE s.theaterId = :theaterId AND (s.startsAt > :startsAt " +
+           "OR (s.startsAt = :startsAt AND s.id > :id)) " +
+           "ORDER BY s.startsAt ASC, s.id ASC")
+    List<Show> findPageByTheaterIdAfter(@Param("theaterId") String theaterId, @Param("startsAt") LocalDateTime startsAt,
+                                        @Param("id") String id, Pageable pageable);
+
+    // Served by idx_shows_city_lower_starts_at (db/indexes.sql)
+    @Query("SELECT s FROM Show s WHERE LOWER(s.theaterCity) = LOWER(:city) AND s.startsAt >= :from AND s.startsAt < :to " +
+           "AND s.isActive = true ORDER BY s.startsAt ASC")
+    List<Show> findByCityAndStartsAtBetween(@Param("city") String city, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT s FROM Show s WHERE s.startsAt >= :from AND s.startsAt < :to AND s.isActive = true ORDER BY s.startsAt ASC")
+    List<Show> findByStartsAtBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Backfill for rows written before starts_at existed; converts exactly the times Show.parseStartsAt
+    // accepts: H:MM or HH:MM, optionally with :SS and a fraction of a second
+    @Modifying
+    @Query(value = "UPDATE shows SET starts_at = show_date + show_time::time " +
+                   "WHERE starts_at IS NULL AND show_date IS NOT NULL " +
+                   "AND show_time ~ '^([01]?[0-9]|2[0-3]):[0-5][0-9](:[0-5][0-9](\\.[0-9]{1,9})?)?$'", nativeQuery = true)
+    int backfillStartsAt();
+
+    @Query("SELECT s FROM Show s WHERE s.showDate >= :date AND s.isActive = true")
+    List<Show> findActiveFromDate(@Param("date") LocalDate date);
+
+    // Per-show seat totals for a movie's upcoming dates: (show_date, show_id, total seats, bookable seats)
+    @Query("SELECT s.showDate, s.id, COUNT(ss.id), " +
+           "SUM(CASE WHEN ss.status = 'AVAILABLE' OR (ss.status = 'LOCKED' AND ss.lockedUntil < :now) THEN 1 ELSE 0 END) " +
+           "FROM Show s LEFT JOIN ShowSeat ss ON ss.showId = s.id " +
+           "WHERE s.movieId = :movieId AND s.isActive = true AND s.showDate >= :from AND s.showDate <= :to " +
+           "AND (:city IS NULL OR LOWER(s.theaterCity) = LOWER(:city)) " +
+           "GROUP BY s.showDate, s.id")
+    List<Object[]> aggregateSeatsByDateForMovie(@Param("movieId") String movieId,
+                                                @Param("city") String city,
+                                                @Param("from") LocalDate from,
+                                                @Param("to") LocalDate to,
+                                                @Param("now") LocalDateTime now);
 }
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import jakarta.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,4 +42,10 @@ public interface ShowSeatRepository extends JpaRepository<ShowSeat, Long> {
 
     @Query("SELECT COUNT(s) FROM ShowSeat s WHERE s.showId = :showId AND s.tier = :tier AND s.status = 'AVAILABLE'")
     Long countAvailableSeatsByTier(@Param("showId") String showId, @Param("tier") ShowSeat.SeatTier tier);
+
+    // One row per (show, tier): total seats and seats currently bookable (free or with an expired lock)
+    @Query("SELECT s.showId, s.tier, COUNT(s), " +
+           "SUM(CASE WHEN s.status = 'AVAILABLE' OR (s.status = 'LOCKED' AND s.lockedUntil < :now) THEN 1 ELSE 0 END) " +
+           "FROM ShowSeat s WHERE s.showId IN :showIds GROUP BY s.showId, s.tier")
+    List<Object[]> countSeatsByShowAndTier(@Param("showIds") Collection<String> showIds, @Param("now") LocalDateTime now);
 }
@@ -1,8 +1,12 @@
 package com.moviebooking.repository.supabase;
 
 import com.moviebooking.entity.supabase.Theater;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -13,4 +17,36 @@ public interface TheaterRepository extends JpaRepository<Theater, String> {
     List<Theater> findByCityIgnoreCase(String city);
 
     List<Theater> findByNameContainingIgnoreCase(String name);
+
+    // Keyset pagination: (name, id) ascending, unnamed theaters last as Postgres sorts NULLs
+    @Query("SELECT t FROM Theater t ORDER BY t.name ASC, t.id ASC")
+    List<Theater> findFirstPageByName(Pageable pageable);
+
+    @Query("SELECT t FROM Theater t WHERE t.name > :name OR (t.name = :name AND t.id > :id) OR t.name IS NULL " +
+           "ORDER BY t.name ASC, t.id ASC")
+    List<Theater> findPageByNameAfter(@Param("name") String name, @Param("id") String id, Pageable pageable);
+
+    @Query("SELECT t FROM Theater t WHERE t.name IS NULL AND t.id > :id ORDER BY t.id ASC")
+    List<Theater> findPageByNullNameAfter(@Param("id") String id, Pageable pageable);
+
+    // Distinct theaters screening a movie, optionally on a date and in a city, as a semi-join on shows.
+    // One statement per combination rather than "(:x IS NULL OR ...)" catch-alls, so a generic prepared
+    // plan can still use idx_shows_movie_date_theater and idx_theaters_city_lower; see perf/theaters-showing-movie.sql
+    @Query("SELECT t FROM Theater t WHERE EXISTS (SELECT 1 FROM Show s WHERE s.theaterId = t.id AND s.movieId = :movieId)")
+    List<Theater> findTheatersShowingMovie(@Param("movieId") String movieId);
+
+    @Query("SELECT t FROM Theater t WHERE EXISTS (SELECT 1 FROM Show s WHERE s.theaterId = t.id AND s.movieId = :movieId " +
+           "AND s.showDate = :date AND s.isActive = true)")
+    List<Theater> findTheatersShowingMovieOnDate(@Param("movieId") String movieId, @Param("date") LocalDate date);
+
+    @Query("SELECT t FROM Theater t WHERE LOWER(t.city) = LOWER(:city) " +
+           "AND EXISTS (SELECT 1 FROM Show s WHERE s.theaterId = t.id AND s.movieId = :movieId)")
+    List<Theater> findTheatersShowingMovieInCity(@Param("movieId") String movieId, @Param("city") String city);
+
+    @Query("SELECT t FROM Theater t WHERE LOWER(t.city) = LOWER(:city) " +
+           "AND EXISTS (SELECT 1 FROM Show s WHERE s.theaterId = t.id AND s.movieId = :movieId " +
+           "AND s.showDate = :date AND s.isActive = true)")
+    List<Theater> findTheatersShowingMovieInCityOnDate(@Param("movieId") String movieId,
+                                                       @Param("date") LocalDate date,
+                                                       @Param("city") String city);
 }
@@ -0,0 +1,57 @@
+package com.moviebooking.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal for requests authenticated by JWT.
+ * Built from the verified token's claims, so controllers get the user's id and name
+ * without loading the user row.
+ */
+@Getter
+public class AuthenticatedUser implements UserDetails {
+
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_NAME = "name";
+
+    private final Long id;
+    private final String email;
+    private final String fullName;
+
+    public AuthenticatedUser(Long id, String email, String fullName) {
+        this.id = id;
+        this.email = email;
+        this.fullName = fullName;
+    }
+
+    /**
+     * @return the principal, or null for tokens issued before the id claim was added
+     */
+    public static AuthenticatedUser fromClaims(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        if (userId == null) {
+            return null;
+        }
+        return new AuthenticatedUser(userId.longValue(), claims.getSubject(), claims.get(CLAIM_NAME, String.class));
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String getPassword() {
+        return "";
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of();
+    }
+}
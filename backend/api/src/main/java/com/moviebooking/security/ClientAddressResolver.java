@@ -0,0 +1,28 @@
+package com.moviebooking.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the address of the client behind a request, for throttling and rate limiting.
+ * X-Forwarded-For is only honoured when ratelimit.trust-forwarded-for is set.
+ */
+@Component
+public class ClientAddressResolver {
+
+    // Only enable behind a proxy that overwrites X-Forwarded-For, otherwise clients can pick their address
+    @Value("${ratelimit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    public String resolve(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isEmpty()) {
+                int comma = forwarded.indexOf(',');
+                return (comma > 0 ? forwarded.substring(0, comma) : forwarded).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
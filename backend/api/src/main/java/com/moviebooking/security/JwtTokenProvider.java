@@ -1,75 +1,156 @@
 package com.moviebooking.security;
 
+import com.moviebooking.entity.supabase.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JwtTokenProvider {
 
+    private static final int MAX_VERIFIED_TOKENS = 10_000;
+
+    private final TokenRevocationService tokenRevocationService;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
+    // Key and parser are immutable and thread-safe, so both are built once
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // SHA-256 of recently verified tokens -> their claims, so repeat requests skip parsing and HMAC.
+    // Access-ordered and bounded: at capacity the least recently used token is evicted, so active
+    // sessions stay cached however many one-off tokens pass through (guarded by verifiedTokensLock)
+    private final Map<String, Claims> verifiedTokens = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+            return size() > MAX_VERIFIED_TOKENS;
+        }
+    };
+    private final ReentrantLock verifiedTokensLock = new ReentrantLock();
 
-    public String generateToken(Authentication authentication) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        return generateToken(userDetails.getUsername());
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
-    public String generateToken(String email) {
+    /**
+     * Token carrying the user's id and name, so requests can be authenticated without a user lookup
+     */
+    public String generateToken(User user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
         return Jwts.builder()
-                .subject(email)
+                .id(UUID.randomUUID().toString())
+                .subject(user.getEmail())
+                .claim(AuthenticatedUser.CLAIM_USER_ID, user.getId())
+                .claim(AuthenticatedUser.CLAIM_NAME, user.getFullName())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getSubject();
-    }
+    /**
+     * Verify a token once and return its claims, or null if it is invalid or expired
+     */
+    public Claims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String digest = digest(token);
+        Claims cached;
+        boolean expired = false;
+        verifiedTokensLock.lock();
+        try {
+            cached = verifiedTokens.get(digest);
+            if (cached != null && !isUnexpired(cached)) {
+                verifiedTokens.remove(digest);
+                expired = true;
+            }
+        } finally {
+            verifiedTokensLock.unlock();
+        }
+        if (expired) {
+            log.error("Expired JWT token");
+            return null;
+        }
+        if (cached != null) {
+            return tokenRevocationService.isRevoked(cached) ? null : cached;
+        }
 
-    public boolean validateToken(String token) {
+        Claims claims;
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (MalformedJwtException ex) {
-            log.error("Invalid JWT token");
+            claims = parser.parseSignedClaims(token).getPayload();
         } catch (ExpiredJwtException ex) {
             log.error("Expired JWT token");
+            return null;
+        } catch (MalformedJwtException ex) {
+            log.error("Invalid JWT token");
+            return null;
         } catch (UnsupportedJwtException ex) {
             log.error("Unsupported JWT token");
+            return null;
+        } catch (JwtException ex) {
+            log.error("JWT signature could not be verified");
+            return null;
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
+            return null;
+        }
+
+        verifiedTokensLock.lock();
+        try {
+            verifiedTokens.put(digest, claims);
+        } finally {
+            verifiedTokensLock.unlock();
+        }
+        return tokenRevocationService.isRevoked(claims) ? null : claims;
+    }
+
+    public String getEmailFromToken(String token) {
+        Claims claims = verify(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token) != null;
+    }
+
+    private static boolean isUnexpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration == null || expiration.getTime() > System.currentTimeMillis();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        return false;
     }
 }
@@ -0,0 +1,140 @@
+package com.moviebooking.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sliding-window throttles for login and signup, checked before any password is hashed.
+ * Each key has its own small counter (current and previous fixed window, the previous one
+ * weighted by how much of it still overlaps the sliding window), so keys never contend.
+ * Accounts are limited on failed logins; client addresses on all attempts.
+ */
+@Component
+@Slf4j
+public class LoginThrottle {
+
+    @Value("${auth.throttle.account-max-failures:5}")
+    private int accountMaxFailures;
+
+    @Value("${auth.throttle.account-window-ms:900000}")
+    private long accountWindowMs;
+
+    @Value("${auth.throttle.ip-max-attempts:30}")
+    private int ipMaxAttempts;
+
+    @Value("${auth.throttle.ip-window-ms:60000}")
+    private long ipWindowMs;
+
+    private final Map<String, SlidingWindow> accountFailures = new ConcurrentHashMap<>();
+    private final Map<String, SlidingWindow> ipAttempts = new ConcurrentHashMap<>();
+
+    private final LongAdder blockedByAccount = new LongAdder();
+    private final LongAdder blockedByIp = new LongAdder();
+    private long lastLoggedBlocked;  // cleanup thread only
+
+    private static final class SlidingWindow {
+        private final long windowMs;
+        private long windowStart;
+        private int current;
+        private int previous;
+
+        SlidingWindow(long windowMs, long now) {
+            this.windowMs = windowMs;
+            this.windowStart = now;
+        }
+
+        synchronized double count(long now) {
+            roll(now);
+            double overlap = 1.0 - (double) (now - windowStart) / windowMs;
+            return current + previous * overlap;
+        }
+
+        synchronized void add(long now) {
+            roll(now);
+            current++;
+        }
+
+        synchronized boolean idle(long now) {
+            return now - windowStart >= 2 * windowMs;
+        }
+
+        private void roll(long now) {
+            long elapsed = now - windowStart;
+            if (elapsed >= 2 * windowMs) {
+                previous = 0;
+                current = 0;
+                windowStart = now;
+            } else if (elapsed >= windowMs) {
+                previous = current;
+                current = 0;
+                windowStart += windowMs;
+            }
+        }
+    }
+
+    /**
+     * Count an attempt from this address and refuse it if the address or account is over budget
+     */
+    public void checkAttempt(String clientIp, String account) {
+        long now = System.currentTimeMillis();
+        if (account != null) {
+            SlidingWindow failures = accountFailures.get(normalize(account));
+            if (failures != null && failures.count(now) >= accountMaxFailures) {
+                blockedByAccount.increment();
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Too many failed attempts for this account, please try again later");
+            }
+        }
+        if (clientIp != null) {
+            SlidingWindow attempts = ipAttempts.computeIfAbsent(clientIp, k -> new SlidingWindow(ipWindowMs, now));
+            if (attempts.count(now) >= ipMaxAttempts) {
+                blockedByIp.increment();
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Too many attempts, please try again later");
+            }
+            attempts.add(now);
+        }
+    }
+
+    public void recordFailure(String account) {
+        long now = System.currentTimeMillis();
+        accountFailures.computeIfAbsent(normalize(account), k -> new SlidingWindow(accountWindowMs, now)).add(now);
+    }
+
+    public void recordSuccess(String account) {
+        accountFailures.remove(normalize(account));
+    }
+
+    public Map<String, Object> metrics() {
+        return Map.of(
+                "trackedAccounts", accountFailures.size(),
+                "trackedClients", ipAttempts.size(),
+                "blockedByAccount", blockedByAccount.sum(),
+                "blockedByIp", blockedByIp.sum()
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${auth.throttle.cleanup-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        accountFailures.values().removeIf(w -> w.idle(now));
+        ipAttempts.values().removeIf(w -> w.idle(now));
+        long blocked = blockedByAccount.sum() + blockedByIp.sum();
+        if (blocked != lastLoggedBlocked) {
+            lastLoggedBlocked = blocked;
+            log.info("Login throttle: {}", metrics());
+        }
+    }
+
+    private static String normalize(String account) {
+        return account.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,172 @@
+package com.moviebooking.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiting for the publicly reachable routes, per client and route group.
+ * The client is the authenticated user when there is one, otherwise its address (see ClientAddressResolver).
+ * Each bucket is one AtomicLong holding its theoretical arrival time (GCRA, equivalent to a
+ * token bucket), so an allowed request costs a map lookup and a CAS. Buckets that have
+ * refilled completely are evicted, since a fresh bucket behaves identically.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Environment environment;
+    private final ClientAddressResolver clientAddressResolver;
+
+    @Value("${ratelimit.enabled:true}")
+    private boolean enabled;
+
+    private final Map<RouteGroup, Budget> budgets = new EnumMap<>(RouteGroup.class);
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Default budgets; each can be overridden with ratelimit.{group}.capacity and ratelimit.{group}.per-second
+     */
+    public enum RouteGroup {
+        CATALOG(120, 20),
+        SEATS(60, 10),
+        REVIEW_LIKE(30, 1),
+        AUTH(20, 0.5),
+        CHAT(10, 0.2);
+
+        final int defaultCapacity;
+        final double defaultPerSecond;
+
+        RouteGroup(int defaultCapacity, double defaultPerSecond) {
+            this.defaultCapacity = defaultCapacity;
+            this.defaultPerSecond = defaultPerSecond;
+        }
+
+        String property() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    /**
+     * @param interval nanos to regain one token; burst = capacity * interval
+     */
+    private record Budget(int capacity, long interval, long burst) {}
+
+    @PostConstruct
+    void loadBudgets() {
+        for (RouteGroup group : RouteGroup.values()) {
+            String prefix = "ratelimit." + group.property();
+            int capacity = environment.getProperty(prefix + ".capacity", Integer.class, group.defaultCapacity);
+            double perSecond = environment.getProperty(prefix + ".per-second", Double.class, group.defaultPerSecond);
+            long interval = (long) (NANOS_PER_SECOND / perSecond);
+            budgets.put(group, new Budget(capacity, interval, capacity * interval));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteGroup group = enabled ? routeGroup(request) : null;
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Budget budget = budgets.get(group);
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.computeIfAbsent(group.ordinal() + "|" + clientKey(request), k -> new AtomicLong(now));
+
+        long tat;
+        long next;
+        do {
+            tat = bucket.get();
+            next = (tat - now > 0 ? tat : now) + budget.interval();
+            if (next - now > budget.burst()) {
+                reject(response, budget, next - now - budget.burst());
+                return;
+            }
+        } while (!bucket.compareAndSet(tat, next));
+
+        long remaining = (budget.burst() - (next - now)) / budget.interval();
+        response.setHeader("RateLimit-Limit", String.valueOf(budget.capacity()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(remaining));
+        response.setHeader("RateLimit-Reset", String.valueOf(ceilSeconds(next - now)));
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Drop buckets that have refilled completely
+     */
+    @Scheduled(fixedDelayString = "${ratelimit.eviction-ms:10000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    private void reject(HttpServletResponse response, Budget budget, long waitNanos) throws IOException {
+        long retryAfter = ceilSeconds(waitNanos);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("RateLimit-Limit", String.valueOf(budget.capacity()));
+        response.setHeader("RateLimit-Remaining", "0");
+        response.setHeader("RateLimit-Reset", String.valueOf(retryAfter));
+        response.setHeader("Retry-After", String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests\",\"retryAfterSeconds\":" + retryAfter + "}");
+    }
+
+    private static RouteGroup routeGroup(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (!path.startsWith("/api/")) {
+            return null;
+        }
+        if (path.startsWith("/api/movies") || path.startsWith("/api/theaters") || path.startsWith("/api/shows")) {
+            return RouteGroup.CATALOG;
+        }
+        if (path.startsWith("/api/bookings/seats")) {
+            return RouteGroup.SEATS;
+        }
+        if (path.startsWith("/api/chat/public") || path.equals("/api/chat/session")) {
+            return RouteGroup.CHAT;
+        }
+        if (path.startsWith("/api/auth/login") || path.startsWith("/api/auth/signup") || path.startsWith("/api/auth/google")) {
+            return RouteGroup.AUTH;
+        }
+        if (path.startsWith("/api/reviews/") && path.endsWith("/like") && "PUT".equals(request.getMethod())) {
+            return RouteGroup.REVIEW_LIKE;
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return "u:" + user.getId();
+        }
+        return "ip:" + clientAddressResolver.resolve(request);
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return Math.max(0, (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    }
+}
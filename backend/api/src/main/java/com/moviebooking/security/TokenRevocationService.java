@@ -0,0 +1,176 @@
+package com.moviebooking.security;
+
+import com.moviebooking.entity.supabase.RevokedToken;
+import com.moviebooking.repository.supabase.RevokedTokenRepository;
+import com.moviebooking.util.BloomFilter;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token Revocation Service
+ * Deny-list of revoked token ids (jti) and per-user cutoffs, held in memory behind a Bloom
+ * filter so the usual not-revoked check is a few hash probes. Revocations are written to
+ * revoked_tokens, loaded at startup, polled for changes made by other instances, and
+ * dropped once the tokens they cover would have expired anyway.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    private static final String USER_KEY_PREFIX = "user:";
+    // Tokens issued before the uid claim existed only name the user by subject (email)
+    private static final String SUBJECT_KEY_PREFIX = "subject:";
+    private static final long MIN_EXPECTED_ENTRIES = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpirationMs;
+
+    // token key -> {revokedAt, expiresAt} in epoch millis
+    private final Map<String, long[]> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter = new BloomFilter(MIN_EXPECTED_ENTRIES, FALSE_POSITIVE_RATE);
+    private volatile LocalDateTime lastSync = LocalDateTime.MIN;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            revokedTokenRepository.findByExpiresAtAfter(now).forEach(this::remember);
+            lastSync = now;
+            rebuildFilter();
+            log.info("Loaded {} token revocations", revoked.size());
+        } catch (Exception e) {
+            log.error("Failed to load token revocations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Whether verified claims belong to a revoked token or to a user whose tokens were all revoked
+     */
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti != null && filter.mightContain(jti) && revoked.containsKey(jti)) {
+            return true;
+        }
+        Number userId = claims.get(AuthenticatedUser.CLAIM_USER_ID, Number.class);
+        String userKey = userId != null ? USER_KEY_PREFIX + userId.longValue()
+                : claims.getSubject() != null ? SUBJECT_KEY_PREFIX + claims.getSubject()
+                : null;
+        if (userKey == null || !filter.mightContain(userKey)) {
+            return false;
+        }
+        long[] cutoff = revoked.get(userKey);
+        Date issuedAt = claims.getIssuedAt();
+        // iat has whole-second resolution, so compare in seconds. A token issued in the same second
+        // as the cutoff cannot be told apart from one issued just before it, and is revoked too.
+        return cutoff != null && (issuedAt == null || issuedAt.getTime() / 1000 <= cutoff[0] / 1000);
+    }
+
+    /**
+     * Revoke one token, e.g. on logout
+     */
+    public void revokeToken(String jti, Date expiresAt) {
+        if (jti == null) {
+            return;
+        }
+        LocalDateTime expiry = expiresAt != null
+                ? LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault())
+                : LocalDateTime.now().plus(Duration.ofMillis(jwtExpirationMs));
+        save(jti, expiry);
+    }
+
+    /**
+     * Revoke every token issued to a user up to now, e.g. for a compromised account.
+     * The email covers tokens issued before they carried the user id.
+     */
+    public void revokeAllForUser(Long userId, String email) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(Duration.ofMillis(jwtExpirationMs));
+        save(USER_KEY_PREFIX + userId, expiresAt);
+        if (email != null) {
+            save(SUBJECT_KEY_PREFIX + email, expiresAt);
+        }
+    }
+
+    /**
+     * Pick up revocations written by other instances
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation-sync-ms:30000}", initialDelayString = "${auth.revocation-sync-ms:30000}")
+    public void sync() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            // Overlap the previous poll slightly so rows committed late are not missed
+            revokedTokenRepository.findByRevokedAtAfter(lastSync.minusSeconds(5)).forEach(this::remember);
+            lastSync = now;
+        } catch (Exception e) {
+            log.error("Failed to sync token revocations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drop entries whose tokens have expired, in memory and in the table
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation-purge-ms:3600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(entry -> entry[1] <= now);
+        if (revoked.size() != before) {
+            rebuildFilter();
+        }
+        try {
+            transactionTemplate.execute(status -> revokedTokenRepository.deleteExpired(LocalDateTime.now()));
+        } catch (Exception e) {
+            log.error("Failed to purge expired token revocations: {}", e.getMessage());
+        }
+    }
+
+    private void save(String key, LocalDateTime expiresAt) {
+        RevokedToken row = RevokedToken.builder()
+                .tokenKey(key)
+                .revokedAt(LocalDateTime.now())
+                .expiresAt(expiresAt)
+                .build();
+        revokedTokenRepository.save(row);
+        remember(row);
+    }
+
+    /**
+     * Add to the map and the filter under the rebuild's monitor, so a rebuild either copies the key
+     * or swaps in before it is added; revocations are rare enough that the lock costs nothing
+     */
+    private synchronized void remember(RevokedToken row) {
+        revoked.put(row.getTokenKey(), new long[]{toMillis(row.getRevokedAt()), toMillis(row.getExpiresAt())});
+        filter.put(row.getTokenKey());
+        if (revoked.size() > MIN_EXPECTED_ENTRIES && revoked.size() > filter.bitSize() / 20) {
+            rebuildFilter();  // grown past the size the filter was built for
+        }
+    }
+
+    private synchronized void rebuildFilter() {
+        BloomFilter fresh = new BloomFilter(Math.max(MIN_EXPECTED_ENTRIES, revoked.size() * 2L), FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(fresh::put);
+        filter = fresh;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
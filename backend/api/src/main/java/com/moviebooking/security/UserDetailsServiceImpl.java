@@ -3,19 +3,32 @@ package com.moviebooking.security;
 import com.moviebooking.entity.supabase.User;
 import com.moviebooking.repository.supabase.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
+    private static final int MAX_CACHED_USERS = 10_000;
+
     private final UserRepository userRepository;
 
+    @Value("${auth.user-cache-ttl-ms:60000}")
+    private long userCacheTtlMs;
+
+    // Read-only copies of recently used users for endpoints that need the entity itself
+    private final Map<Long, CachedUser> usersById = new ConcurrentHashMap<>();
+
+    private record CachedUser(User user, long loadedAtMillis) {}
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
@@ -32,4 +45,33 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
+
+    /**
+     * Cached user for read-only use; callers that modify the user must load it from the repository
+     */
+    public User getUserById(Long id) {
+        CachedUser cached = usersById.get(id);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAtMillis() < userCacheTtlMs) {
+            return cached.user();
+        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+        if (usersById.size() >= MAX_CACHED_USERS) {
+            usersById.clear();
+        }
+        usersById.put(id, new CachedUser(user, System.currentTimeMillis()));
+        return user;
+    }
+
+    public void evictUser(Long id) {
+        usersById.remove(id);
+    }
+
+    /**
+     * Principal for tokens issued before they carried the user id; costs one lookup
+     */
+    public AuthenticatedUser loadPrincipalByEmail(String email) {
+        User user = getUserByEmail(email);
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getFullName());
+    }
 }
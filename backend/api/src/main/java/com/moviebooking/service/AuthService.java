@@ -6,10 +6,13 @@ import com.moviebooking.dto.response.AuthResponse;
 import com.moviebooking.entity.supabase.User;
 import com.moviebooking.repository.supabase.UserRepository;
 import com.moviebooking.security.JwtTokenProvider;
+import com.moviebooking.security.LoginThrottle;
+import com.moviebooking.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,9 +25,12 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final LoginThrottle loginThrottle;
+    private final TokenRevocationService tokenRevocationService;
 
-    @Transactional
-    public AuthResponse signup(SignupRequest request) {
+    // Not @Transactional: the hash would otherwise hold one of the few pooled connections
+    public AuthResponse signup(SignupRequest request, String clientIp) {
+        loginThrottle.checkAttempt(clientIp, null);
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email already exists");
         }
@@ -37,7 +43,7 @@ public class AuthService {
 
         userRepository.save(user);
 
-        String token = tokenProvider.generateToken(user.getEmail());
+        String token = tokenProvider.generateToken(user);
 
         return AuthResponse.builder()
                 .token(token)
@@ -47,16 +53,23 @@ public class AuthService {
                 .build();
     }
 
-    public AuthResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
-
-        String token = tokenProvider.generateToken(authentication);
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        loginThrottle.checkAttempt(clientIp, request.getEmail());
+        try {
+            authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
+            );
+        } catch (AuthenticationException e) {
+            loginThrottle.recordFailure(request.getEmail());
+            throw e;
+        }
+        loginThrottle.recordSuccess(request.getEmail());
 
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        String token = tokenProvider.generateToken(user);
+
         return AuthResponse.builder()
                 .token(token)
                 .userId(user.getId())
@@ -85,7 +98,7 @@ public class AuthService {
                             });
                 });
 
-        String token = tokenProvider.generateToken(user.getEmail());
+        String token = tokenProvider.generateToken(user);
 
         return AuthResponse.builder()
                 .token(token)
@@ -94,4 +107,21 @@ public class AuthService {
                 .fullName(user.getFullName())
                 .build();
     }
+
+    /**
+     * Revoke the presented token; invalid or already revoked tokens are ignored
+     */
+    public void logout(String token) {
+        Claims claims = tokenProvider.verify(token);
+        if (claims != null) {
+            tokenRevocationService.revokeToken(claims.getId(), claims.getExpiration());
+        }
+    }
+
+    /**
+     * Revoke every token issued to the user so far
+     */
+    public void logoutEverywhere(Long userId, String email) {
+        tokenRevocationService.revokeAllForUser(userId, email);
+    }
 }
@@ -5,6 +5,8 @@ import com.moviebooking.dto.response.BookingResponse;
 import com.moviebooking.entity.supabase.Movie;
 import com.moviebooking.entity.supabase.Show;
 import com.moviebooking.entity.supabase.*;
+import com.moviebooking.event.BookingCompletedEvent;
+import com.moviebooking.event.SeatsChangedEvent;
 import com.moviebooking.repository.supabase.MovieRepository;
 import com.moviebooking.repository.supabase.ShowRepository;
 import com.moviebooking.repository.supabase.BookingRepository;
@@ -12,6 +14,7 @@ import com.moviebooking.repository.supabase.ShowSeatRepository;
 import com.moviebooking.repository.supabase.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,6 +36,7 @@ public class BookingService {
     private final ShowRepository showRepository;
     private final MovieRepository movieRepository;
     private final PricingService pricingService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Lock seats temporarily for a user
@@ -61,7 +65,10 @@ public class BookingService {
             seat.setLockedUntil(lockUntil);
         }
 
-        return showSeatRepository.saveAll(seats);
+        List<ShowSeat> saved = showSeatRepository.saveAll(seats);
+        eventPublisher.publishEvent(new SeatsChangedEvent(
+                seats.stream().map(ShowSeat::getShowId).distinct().toList()));
+        return saved;
     }
 
     /**
@@ -69,8 +76,10 @@ public class BookingService {
      */
     @Transactional
     public BookingResponse completeBooking(Long userId, BookingRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        List<Long> seatIds = request.getSeatIds();
+        if (seatIds == null || seatIds.isEmpty()) {
+            throw new RuntimeException("At least one seat must be selected");
+        }
 
         Show show = showRepository.findById(request.getShowId())
                 .orElseThrow(() -> new RuntimeException("Show not found"));
@@ -79,16 +88,25 @@ public class BookingService {
                 .orElseThrow(() -> new RuntimeException("Movie not found"));
 
         // Get locked seats
-        List<ShowSeat> seats = showSeatRepository.findByIdsWithLock(request.getSeatIds());
+        List<ShowSeat> seats = showSeatRepository.findByIdsWithLock(seatIds);
+        if (seats.size() != new HashSet<>(seatIds).size()) {
+            throw new RuntimeException("One or more seats not found");
+        }
 
-        // Validate seats are locked by this user
+        // Validate seats belong to this show and are locked by this user
         for (ShowSeat seat : seats) {
+            if (!show.getId().equals(seat.getShowId())) {
+                throw new RuntimeException("Seat " + seat.getSeatNumber() + " is not part of this show");
+            }
             if (seat.getStatus() != ShowSeat.SeatStatus.LOCKED || 
                 !userId.equals(seat.getLockedBy())) {
                 throw new RuntimeException("Seat " + seat.getSeatNumber() + " is not locked by you");
             }
         }
 
+        // Reference only: every seat is locked by this user, which only an existing user can do
+        User user = userRepository.getReferenceById(userId);
+
         // Calculate total price
         BigDecimal totalAmount = BigDecimal.ZERO;
         for (ShowSeat seat : seats) {
@@ -129,6 +147,15 @@ public class BookingService {
         showSeatRepository.saveAll(seats);
         Booking savedBooking = bookingRepository.save(booking);
 
+        eventPublisher.publishEvent(new BookingCompletedEvent(
+                savedBooking.getId(),
+                userId,
+                movie.getId(),
+                show.getId(),
+                show.getTheaterId(),
+                seats.stream().map(ShowSeat::getId).toList()
+        ));
+
         return mapToBookingResponse(savedBooking, show, movie, seats);
     }
 
@@ -0,0 +1,64 @@
+package com.moviebooking.service;
+
+import com.moviebooking.entity.supabase.Movie;
+import com.moviebooking.entity.supabase.Show;
+import com.moviebooking.entity.supabase.Theater;
+import com.moviebooking.event.ShowChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that bumps the catalog version of whatever entity was written.
+ * The JPA callbacks fire at flush, before the write is visible to other transactions, so the
+ * bump is deferred until after commit: a reader that sees the new version is then guaranteed
+ * to load the new rows, rather than caching the old ones under the new ETag.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogChangeListener {
+
+    private final CatalogVersionService catalogVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        onChange(entity, false);
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        onChange(entity, true);
+    }
+
+    private void onChange(Object entity, boolean removed) {
+        if (entity instanceof Movie) {
+            bumpAfterCommit(CatalogVersionService.Collection.MOVIES);
+        } else if (entity instanceof Theater) {
+            bumpAfterCommit(CatalogVersionService.Collection.THEATERS);
+        } else if (entity instanceof Show show) {
+            bumpAfterCommit(CatalogVersionService.Collection.SHOWS);
+            // Consumed by @TransactionalEventListener, which already waits for the commit
+            eventPublisher.publishEvent(new ShowChangedEvent(show, removed));
+        }
+    }
+
+    private void bumpAfterCommit(CatalogVersionService.Collection collection) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            catalogVersionService.bump(collection);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                catalogVersionService.bump(collection);
+            }
+        });
+    }
+}
@@ -0,0 +1,177 @@
+package com.moviebooking.service;
+
+import com.moviebooking.dto.response.CursorPage;
+import com.moviebooking.entity.supabase.Movie;
+import com.moviebooking.entity.supabase.Show;
+import com.moviebooking.entity.supabase.Theater;
+import com.moviebooking.repository.supabase.MovieRepository;
+import com.moviebooking.repository.supabase.ShowRepository;
+import com.moviebooking.repository.supabase.TheaterRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Catalog Paging Service
+ * Keyset (cursor) pagination over movies, theaters and shows.
+ * Each page is one index-ordered query of at most limit + 1 rows, so memory per request
+ * stays constant regardless of table size.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogPagingService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final LocalDate NULL_RELEASE_DATE = LocalDate.of(1, 1, 1);
+
+    private final MovieRepository movieRepository;
+    private final TheaterRepository theaterRepository;
+    private final ShowRepository showRepository;
+
+    public enum MovieSort {
+        RATING, RELEASE_DATE, TITLE;
+
+        /**
+         * Parse the sort request parameter (rating, release_date / release-date, title)
+         */
+        public static MovieSort fromParam(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown sort: " + value);
+            }
+        }
+    }
+
+    /**
+     * Movies ordered by (rating, id) desc, (release date, id) desc or (title, id) asc
+     */
+    public CursorPage<Movie> getMovies(MovieSort sort, String cursor, int limit) {
+        return switch (sort) {
+            case RATING -> getMoviesByRating(0.0, cursor, limit);
+            case RELEASE_DATE -> getMoviesByReleaseDate(cursor, limit);
+            case TITLE -> getMoviesByTitle(cursor, limit);
+        };
+    }
+
+    /**
+     * Movies rated at least minRating, ordered by (rating, id) desc
+     */
+    public CursorPage<Movie> getMoviesByRating(Double minRating, String cursor, int limit) {
+        Pageable page = pageOf(limit);
+        List<Movie> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = movieRepository.findFirstPageByRating(minRating, page);
+        } else {
+            String[] key = CursorPage.decodeCursor(cursor, 2);
+            rows = movieRepository.findPageByRatingAfter(
+                    minRating, CursorPage.parseKey(key[0], Double::valueOf), key[1], page);
+        }
+        return toPage(rows, limit, m -> CursorPage.encodeCursor(String.valueOf(ratingOf(m)), m.getId()));
+    }
+
+    private CursorPage<Movie> getMoviesByReleaseDate(String cursor, int limit) {
+        Pageable page = pageOf(limit);
+        List<Movie> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = movieRepository.findFirstPageByReleaseDate(page);
+        } else {
+            String[] key = CursorPage.decodeCursor(cursor, 2);
+            rows = movieRepository.findPageByReleaseDateAfter(
+                    CursorPage.parseKey(key[0], LocalDate::parse), key[1], page);
+        }
+        return toPage(rows, limit, m -> CursorPage.encodeCursor(
+                (m.getReleaseDate() != null ? m.getReleaseDate() : NULL_RELEASE_DATE).toString(), m.getId()));
+    }
+
+    private CursorPage<Movie> getMoviesByTitle(String cursor, int limit) {
+        Pageable page = pageOf(limit);
+        List<Movie> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = movieRepository.findFirstPageByTitle(page);
+        } else {
+            String[] key = CursorPage.decodeCursor(cursor, 2);
+            rows = key[0] != null
+                    ? movieRepository.findPageByTitleAfter(key[0], key[1], page)
+                    : movieRepository.findPageByNullTitleAfter(key[1], page);
+        }
+        return toPage(rows, limit, m -> CursorPage.encodeCursor(m.getTitle(), m.getId()));
+    }
+
+    /**
+     * Theaters ordered by (name, id) asc
+     */
+    public CursorPage<Theater> getTheaters(String cursor, int limit) {
+        Pageable page = pageOf(limit);
+        List<Theater> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = theaterRepository.findFirstPageByName(page);
+        } else {
+            String[] key = CursorPage.decodeCursor(cursor, 2);
+            rows = key[0] != null
+                    ? theaterRepository.findPageByNameAfter(key[0], key[1], page)
+                    : theaterRepository.findPageByNullNameAfter(key[1], page);
+        }
+        return toPage(rows, limit, t -> CursorPage.encodeCursor(t.getName(), t.getId()));
+    }
+
+    /**
+     * Shows at a theater ordered by (start, id) asc. Shows whose time could not be parsed have no
+     * start and are left out, since the free-form time string does not sort chronologically.
+     */
+    public CursorPage<Show> getShowsForTheater(String theaterId, String cursor, int limit) {
+        Pageable page = pageOf(limit);
+        List<Show> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = showRepository.findFirstPageByTheaterId(theaterId, page);
+        } else {
+            String[] key = CursorPage.decodeCursor(cursor, 2);
+            rows = showRepository.findPageByTheaterIdAfter(
+                    theaterId, CursorPage.parseKey(key[0], LocalDateTime::parse), key[1], page);
+        }
+        return toPage(rows, limit, s -> CursorPage.encodeCursor(s.getStartsAt().toString(), s.getId()));
+    }
+
+    private Pageable pageOf(int limit) {
+        // One extra row tells us whether another page exists without a COUNT query
+        return PageRequest.of(0, clampLimit(limit) + 1);
+    }
+
+    private int clampLimit(int limit) {
+        if (limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private <T> CursorPage<T> toPage(List<T> rows, int limit, Function<T, String> cursorOf) {
+        int size = clampLimit(limit);
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(items.get(items.size() - 1)) : null;
+
+        return CursorPage.<T>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private double ratingOf(Movie movie) {
+        if (movie.getRating() == null || movie.getRating().getAverage() == null) {
+            return 0.0;
+        }
+        return movie.getRating().getAverage();
+    }
+}
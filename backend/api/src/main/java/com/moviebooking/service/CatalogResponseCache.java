@@ -0,0 +1,137 @@
+package com.moviebooking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Catalog Response Cache
+ * Conditional GET for catalog reads. The ETag is derived from the collection versions, so a
+ * matching If-None-Match is answered with 304 before the loader runs. If-Modified-Since is only
+ * consulted when no If-None-Match was sent (RFC 9110 13.2.2).
+ * Last-Modified is the last change rounded up to the next second, and is left out while that
+ * second has not yet passed, so a later write never shares the date a client already holds.
+ * Full responses are kept as pre-serialized JSON bytes until the version moves on.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogResponseCache {
+
+    private static final int MAX_ENTRIES = 2048;
+
+    private final CatalogVersionService catalogVersionService;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, CachedBody> bodies = new ConcurrentHashMap<>();
+
+    private record CachedBody(String etag, CatalogVersionService.Collection[] deps, byte[] json) {}
+
+    /**
+     * @param key    identifies the representation, e.g. "movies:id:42"
+     * @param loader produces the response body; returning null yields 404
+     * @param deps   collections the response is built from
+     */
+    public ResponseEntity<byte[]> respond(HttpServletRequest request, String key, Supplier<Object> loader,
+                                          CatalogVersionService.Collection... deps) {
+        // Versions are bumped after commit and read here before loading, so the body cached under
+        // an ETag is never older than the data that ETag stands for
+        String etag = etagFor(key, deps);
+        long lastModified = lastModifiedOf(deps);
+
+        if (notModified(request, etag, lastModified)) {
+            return withLastModified(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag), lastModified)
+                    .build();
+        }
+
+        CachedBody cached = bodies.get(key);
+        if (cached == null || !cached.etag().equals(etag)) {
+            Object body = loader.get();
+            if (body == null) {
+                return ResponseEntity.notFound().build();
+            }
+            cached = new CachedBody(etag, deps, serialize(body));
+            store(key, cached);
+        }
+
+        return withLastModified(ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(etag), lastModified)
+                .body(cached.json());
+    }
+
+    /**
+     * Keep the body unless the cache is full of current entries; stale ones are dropped first,
+     * so a client walking many parameter combinations cannot flush the hot entries
+     */
+    private void store(String key, CachedBody body) {
+        if (bodies.size() >= MAX_ENTRIES && !bodies.containsKey(key)) {
+            bodies.entrySet().removeIf(e -> !e.getValue().etag().equals(etagFor(e.getKey(), e.getValue().deps())));
+            if (bodies.size() >= MAX_ENTRIES) {
+                return;
+            }
+        }
+        bodies.put(key, body);
+    }
+
+    private long lastModifiedOf(CatalogVersionService.Collection... deps) {
+        long latest = 0;
+        for (CatalogVersionService.Collection c : deps) {
+            latest = Math.max(latest, catalogVersionService.lastModified(c));
+        }
+        return latest;
+    }
+
+    // Not sent while still in the future: an origin must not date a response later than itself
+    private static ResponseEntity.BodyBuilder withLastModified(ResponseEntity.BodyBuilder builder, long lastModified) {
+        return lastModified <= System.currentTimeMillis() ? builder.lastModified(lastModified) : builder;
+    }
+
+    private String etagFor(String key, CatalogVersionService.Collection... deps) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (CatalogVersionService.Collection c : deps) {
+            sb.append(Long.toString(catalogVersionService.version(c), 36)).append('.');
+        }
+        sb.append(Integer.toHexString(key.hashCode())).append('"');
+        return sb.toString();
+    }
+
+    private boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (lastModified > System.currentTimeMillis()) {
+            return false;  // no Last-Modified was sent for this second yet
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize catalog response", e);
+        }
+    }
+}
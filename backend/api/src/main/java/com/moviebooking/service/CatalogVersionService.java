@@ -0,0 +1,71 @@
+package com.moviebooking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog Version Service
+ * A cheap per-collection version counter used for ETags, plus the time of the last change for
+ * Last-Modified. Any committed write to a movie, theater or show bumps its collection (see CatalogChangeListener).
+ */
+@Service
+@Slf4j
+public class CatalogVersionService {
+
+    public enum Collection {
+        MOVIES, THEATERS, SHOWS
+    }
+
+    private final Map<Collection, AtomicLong> versions = new EnumMap<>(Collection.class);
+    // Epoch millis of the last change, rounded up to the next whole second
+    private final Map<Collection, AtomicLong> lastModified = new EnumMap<>(Collection.class);
+
+    public CatalogVersionService() {
+        // Seed from the clock so ETags issued by a previous process never match after a restart
+        long seed = System.currentTimeMillis();
+        for (Collection c : Collection.values()) {
+            versions.put(c, new AtomicLong(seed));
+            lastModified.put(c, new AtomicLong(ceilSecond(seed)));
+        }
+    }
+
+    public long version(Collection collection) {
+        return versions.get(collection).get();
+    }
+
+    /**
+     * Time of the last change in epoch millis, a whole second; may lie up to a second in the future
+     */
+    public long lastModified(Collection collection) {
+        return lastModified.get(collection).get();
+    }
+
+    public void bump(Collection collection) {
+        // Before the version, so a reader that sees the new version also sees the new time
+        lastModified.get(collection).accumulateAndGet(ceilSecond(System.currentTimeMillis()), Math::max);
+        versions.get(collection).incrementAndGet();
+    }
+
+    /**
+     * Catalog rows are also edited directly in the database, which no listener sees.
+     * Bumping on a fixed interval bounds how long a client can keep such a stale copy.
+     */
+    @Scheduled(fixedDelayString = "${catalog.version.max-stale-ms:300000}", initialDelayString = "${catalog.version.max-stale-ms:300000}")
+    public void expireAll() {
+        for (Collection c : Collection.values()) {
+            bump(c);
+        }
+        log.debug("Catalog versions bumped for out-of-band changes");
+    }
+
+    // HTTP dates have whole-second resolution; rounding up keeps a change within a second from
+    // carrying the same date as a response served earlier in that second
+    private static long ceilSecond(long millis) {
+        return (millis + 999) / 1000 * 1000;
+    }
+}
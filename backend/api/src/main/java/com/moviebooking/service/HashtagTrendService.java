@@ -0,0 +1,212 @@
+package com.moviebooking.service;
+
+import com.moviebooking.dto.response.TrendingHashtagResponse;
+import com.moviebooking.event.ReviewChangedEvent;
+import com.moviebooking.repository.supabase.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hashtag Trend Service
+ * Streaming top-K hashtags per movie and across all movies, using Space-Saving counters with
+ * exponential time decay. Each tracker keeps a fixed number of counters, so memory per movie is
+ * bounded however many reviews arrive. Decay is applied forward: a mention at time t adds
+ * 2^((t - landmark) / halfLife), and scores are divided by the current weight when read;
+ * the landmark is moved forward periodically to keep the numbers small.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HashtagTrendService {
+
+    private static final int MOVIE_CAPACITY = 32;
+    private static final int GLOBAL_CAPACITY = 256;
+    private static final int BOOTSTRAP_HALF_LIVES = 20;  // older mentions weigh under one millionth
+
+    private final ReviewRepository reviewRepository;
+
+    @Value("${reviews.hashtag-half-life-hours:24}")
+    private long halfLifeHours;
+
+    private final Map<String, SpaceSaving> byMovie = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock landmarkLock = new ReentrantReadWriteLock();
+    private final SpaceSaving global = new SpaceSaving(GLOBAL_CAPACITY);
+    private volatile long landmarkMillis = System.currentTimeMillis();
+
+    /**
+     * Space-Saving summary: when full, a new tag takes over the smallest counter and inherits its
+     * count as overestimation error, so any tag whose true weight exceeds total/capacity is kept
+     */
+    private static final class SpaceSaving {
+        final int capacity;
+        final Map<String, double[]> counters = new HashMap<>();  // tag -> {count, error}
+
+        SpaceSaving(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void add(String tag, double weight) {
+            double[] counter = counters.get(tag);
+            if (counter != null) {
+                counter[0] += weight;
+                return;
+            }
+            if (counters.size() < capacity) {
+                counters.put(tag, new double[]{weight, 0});
+                return;
+            }
+            String minTag = null;
+            double min = Double.MAX_VALUE;
+            for (Map.Entry<String, double[]> e : counters.entrySet()) {
+                if (e.getValue()[0] < min) {
+                    min = e.getValue()[0];
+                    minTag = e.getKey();
+                }
+            }
+            counters.remove(minTag);
+            counters.put(tag, new double[]{min + weight, min});
+        }
+
+        synchronized void scale(double factor) {
+            for (double[] counter : counters.values()) {
+                counter[0] *= factor;
+                counter[1] *= factor;
+            }
+        }
+
+        synchronized List<TrendingHashtagResponse> top(int limit, double divisor) {
+            return counters.entrySet().stream()
+                    .sorted((a, b) -> Double.compare(b.getValue()[0], a.getValue()[0]))
+                    .limit(limit)
+                    .map(e -> TrendingHashtagResponse.builder()
+                            .hashtag("#" + e.getKey())
+                            .score(round(e.getValue()[0] / divisor))
+                            .minScore(round((e.getValue()[0] - e.getValue()[1]) / divisor))
+                            .build())
+                    .toList();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @SuppressWarnings("unchecked")
+    public void bootstrap() {
+        try {
+            LocalDateTime since = LocalDateTime.now().minusHours(halfLifeHours * BOOTSTRAP_HALF_LIVES);
+            int reviews = 0;
+            for (Object[] row : reviewRepository.findHashtagsSince(since)) {
+                LocalDateTime createdAt = (LocalDateTime) row[2];
+                record((String) row[0], (List<String>) row[1],
+                        createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                reviews++;
+            }
+            log.info("Hashtag trends seeded from {} reviews", reviews);
+        } catch (Exception e) {
+            log.error("Failed to seed hashtag trends: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Only newly posted reviews count; edits are skipped
+     */
+    @TransactionalEventListener
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (event.created()) {
+            record(event.review().getMovieId(), event.review().getHashtags(), System.currentTimeMillis());
+        }
+    }
+
+    public List<TrendingHashtagResponse> trendingForMovie(String movieId, int limit) {
+        SpaceSaving tracker = byMovie.get(movieId);
+        return tracker != null ? tracker.top(limit, currentWeight()) : List.of();
+    }
+
+    public List<TrendingHashtagResponse> trendingGlobally(int limit) {
+        return global.top(limit, currentWeight());
+    }
+
+    /**
+     * Move the landmark to now and rescale every counter, so weights never overflow
+     */
+    @Scheduled(fixedDelayString = "${reviews.hashtag-rebase-ms:3600000}")
+    public void rebaseLandmark() {
+        landmarkLock.writeLock().lock();
+        try {
+            long now = System.currentTimeMillis();
+            double factor = 1.0 / weightAt(now);
+            byMovie.values().forEach(tracker -> tracker.scale(factor));
+            global.scale(factor);
+            landmarkMillis = now;
+        } finally {
+            landmarkLock.writeLock().unlock();
+        }
+    }
+
+    private void record(String movieId, List<String> hashtags, long atMillis) {
+        if (movieId == null || hashtags == null || hashtags.isEmpty()) {
+            return;
+        }
+        Set<String> tags = new LinkedHashSet<>();
+        for (String raw : hashtags) {
+            String tag = normalize(raw);
+            if (tag != null) {
+                tags.add(tag);
+            }
+        }
+        if (tags.isEmpty()) {
+            return;
+        }
+
+        landmarkLock.readLock().lock();
+        try {
+            double weight = weightAt(atMillis);
+            SpaceSaving tracker = byMovie.computeIfAbsent(movieId, id -> new SpaceSaving(MOVIE_CAPACITY));
+            for (String tag : tags) {
+                tracker.add(tag, weight);
+                global.add(tag, weight);
+            }
+        } finally {
+            landmarkLock.readLock().unlock();
+        }
+    }
+
+    private double currentWeight() {
+        landmarkLock.readLock().lock();
+        try {
+            return weightAt(System.currentTimeMillis());
+        } finally {
+            landmarkLock.readLock().unlock();
+        }
+    }
+
+    private double weightAt(long millis) {
+        double halfLives = (millis - landmarkMillis) / (halfLifeHours * 3_600_000.0);
+        return Math.pow(2, halfLives);
+    }
+
+    private static String normalize(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        String tag = raw.trim();
+        while (tag.startsWith("#")) {
+            tag = tag.substring(1);
+        }
+        return tag.isEmpty() ? null : tag.toLowerCase();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,280 @@
+package com.moviebooking.service;
+
+import com.moviebooking.entity.supabase.Movie;
+import com.moviebooking.event.BookingCompletedEvent;
+import com.moviebooking.repository.supabase.BookingRepository;
+import com.moviebooking.repository.supabase.MovieRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Movie Ranking Service
+ * Keeps pre-sorted in-memory arrays for the top-rated, now-showing, coming-soon and popular views.
+ * Readers take the current immutable snapshot and copy a prefix, so a top-k read is O(k).
+ * Writers reposition a single movie with a binary-search insert instead of re-sorting.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MovieRankingService {
+
+    private static final int POPULARITY_WINDOW_DAYS = 7;
+
+    private final MovieRepository movieRepository;
+    private final BookingRepository bookingRepository;
+
+    private final Object writeLock = new Object();
+    private final Map<String, Movie> moviesById = new HashMap<>();
+    private final Map<String, Long> popularityScores = new ConcurrentHashMap<>();
+
+    private volatile Rankings rankings = Rankings.empty();
+    private volatile boolean loaded = false;
+
+    // rating desc, id desc - same order as the (rating, id) keyset pages
+    private static final Comparator<Movie> BY_RATING = Comparator
+            .comparingDouble(MovieRankingService::ratingOf).reversed()
+            .thenComparing(Movie::getId, Comparator.reverseOrder());
+
+    private static final Comparator<Movie> BY_RELEASE_DESC = Comparator
+            .comparing(MovieRankingService::releaseDateOf, Comparator.reverseOrder())
+            .thenComparing(Movie::getId);
+
+    private static final Comparator<Movie> BY_RELEASE_ASC = Comparator
+            .comparing(MovieRankingService::releaseDateOf)
+            .thenComparing(Movie::getId);
+
+    private final Comparator<Movie> byPopularity = Comparator
+            .comparingLong((Movie m) -> popularityScores.getOrDefault(m.getId(), 0L)).reversed()
+            .thenComparing(BY_RATING);
+
+    private record Rankings(LocalDate day, Movie[] byRating, Movie[] nowShowing, Movie[] comingSoon, Movie[] byPopularity) {
+        static Rankings empty() {
+            Movie[] none = new Movie[0];
+            return new Rankings(LocalDate.MIN, none, none, none, none);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refresh();
+    }
+
+    /**
+     * Full rebuild from the database. Runs periodically so the popularity window slides
+     * and movies inserted outside the API are picked up.
+     */
+    @Scheduled(fixedDelayString = "${ranking.refresh-interval-ms:600000}", initialDelayString = "${ranking.refresh-interval-ms:600000}")
+    public void refresh() {
+        try {
+            List<Movie> movies = movieRepository.findAll();
+            Map<String, Long> scores = new HashMap<>();
+            for (Object[] row : bookingRepository.countSeatsBookedPerMovieSince(
+                    LocalDateTime.now().minusDays(POPULARITY_WINDOW_DAYS))) {
+                scores.put((String) row[0], ((Number) row[1]).longValue());
+            }
+
+            synchronized (writeLock) {
+                moviesById.clear();
+                movies.forEach(m -> moviesById.put(m.getId(), m));
+                popularityScores.clear();
+                popularityScores.putAll(scores);
+                rankings = build(LocalDate.now());
+                loaded = true;
+            }
+            log.info("Movie rankings rebuilt for {} movies", movies.size());
+        } catch (Exception e) {
+            log.error("Failed to rebuild movie rankings: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Movies rated at least minRating, best first
+     */
+    public List<Movie> topRated(double minRating, int limit) {
+        if (!loaded) {
+            return fallback(movieRepository.findByRatingGreaterThan(minRating), BY_RATING, limit);
+        }
+        Movie[] sorted = current().byRating();
+        List<Movie> result = new ArrayList<>(Math.max(0, Math.min(limit, sorted.length)));
+        for (int i = 0; i < sorted.length && result.size() < limit; i++) {
+            if (ratingOf(sorted[i]) < minRating) {
+                break;
+            }
+            result.add(sorted[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Released movies, newest first
+     */
+    public List<Movie> nowShowing(int limit) {
+        if (!loaded) {
+            return fallback(movieRepository.findNowShowing(LocalDate.now()), BY_RELEASE_DESC, limit);
+        }
+        return prefix(current().nowShowing(), limit);
+    }
+
+    /**
+     * Upcoming movies, soonest first
+     */
+    public List<Movie> comingSoon(int limit) {
+        if (!loaded) {
+            return fallback(movieRepository.findComingSoon(LocalDate.now()), BY_RELEASE_ASC, limit);
+        }
+        return prefix(current().comingSoon(), limit);
+    }
+
+    /**
+     * Movies by seats booked in the last week
+     */
+    public List<Movie> popular(int limit) {
+        if (!loaded) {
+            // No booking counts yet, so this is the rating order the popularity ranking breaks ties with
+            return fallback(movieRepository.findAll(), byPopularity, limit);
+        }
+        return prefix(current().byPopularity(), limit);
+    }
+
+    public long getPopularityScore(String movieId) {
+        return popularityScores.getOrDefault(movieId, 0L);
+    }
+
+    /**
+     * Reposition a movie whose rating or release date changed
+     */
+    public void onMovieUpdated(Movie movie) {
+        synchronized (writeLock) {
+            if (!loaded) {
+                return;
+            }
+            moviesById.put(movie.getId(), movie);
+            Rankings r = current();
+            LocalDate today = r.day();
+            boolean released = !releaseDateOf(movie).isAfter(today);
+            rankings = new Rankings(
+                    today,
+                    reposition(r.byRating(), movie, BY_RATING, true),
+                    reposition(r.nowShowing(), movie, BY_RELEASE_DESC, released),
+                    reposition(r.comingSoon(), movie, BY_RELEASE_ASC, !released),
+                    reposition(r.byPopularity(), movie, byPopularity, true)
+            );
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBookingCompleted(BookingCompletedEvent event) {
+        synchronized (writeLock) {
+            Movie movie = moviesById.get(event.movieId());
+            if (!loaded || movie == null) {
+                return;
+            }
+            // Remove first, bump the score, then re-insert at its new position
+            Rankings r = current();
+            Movie[] without = reposition(r.byPopularity(), movie, byPopularity, false);
+            popularityScores.merge(event.movieId(), (long) event.seatIds().size(), Long::sum);
+            rankings = new Rankings(r.day(), r.byRating(), r.nowShowing(), r.comingSoon(),
+                    reposition(without, movie, byPopularity, true));
+        }
+    }
+
+    private Rankings current() {
+        Rankings r = rankings;
+        if (!r.day().equals(LocalDate.now()) && loaded) {
+            // Day rolled over: re-partition now-showing / coming-soon from memory
+            synchronized (writeLock) {
+                if (!rankings.day().equals(LocalDate.now())) {
+                    rankings = build(LocalDate.now());
+                }
+                r = rankings;
+            }
+        }
+        return r;
+    }
+
+    private Rankings build(LocalDate today) {
+        Movie[] all = moviesById.values().toArray(new Movie[0]);
+
+        Movie[] byRating = all.clone();
+        Arrays.sort(byRating, BY_RATING);
+
+        Movie[] nowShowing = Arrays.stream(all)
+                .filter(m -> !releaseDateOf(m).isAfter(today))
+                .sorted(BY_RELEASE_DESC)
+                .toArray(Movie[]::new);
+
+        Movie[] comingSoon = Arrays.stream(all)
+                .filter(m -> releaseDateOf(m).isAfter(today))
+                .sorted(BY_RELEASE_ASC)
+                .toArray(Movie[]::new);
+
+        Movie[] byPop = all.clone();
+        Arrays.sort(byPop, byPopularity);
+
+        return new Rankings(today, byRating, nowShowing, comingSoon, byPop);
+    }
+
+    /**
+     * Copy-on-write removal of any entry with the movie's id, followed by an optional sorted insert
+     */
+    private static Movie[] reposition(Movie[] sorted, Movie movie, Comparator<Movie> order, boolean include) {
+        int existing = -1;
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i].getId().equals(movie.getId())) {
+                existing = i;
+                break;
+            }
+        }
+
+        Movie[] base = sorted;
+        if (existing >= 0) {
+            base = new Movie[sorted.length - 1];
+            System.arraycopy(sorted, 0, base, 0, existing);
+            System.arraycopy(sorted, existing + 1, base, existing, sorted.length - existing - 1);
+        }
+        if (!include) {
+            return base;
+        }
+
+        int pos = Arrays.binarySearch(base, movie, order);
+        int insertAt = pos >= 0 ? pos : -(pos + 1);
+        Movie[] result = new Movie[base.length + 1];
+        System.arraycopy(base, 0, result, 0, insertAt);
+        result[insertAt] = movie;
+        System.arraycopy(base, insertAt, result, insertAt + 1, base.length - insertAt);
+        return result;
+    }
+
+    private static List<Movie> prefix(Movie[] sorted, int limit) {
+        int k = Math.max(0, Math.min(limit, sorted.length));
+        return Arrays.asList(Arrays.copyOf(sorted, k));
+    }
+
+    /**
+     * Before the first load: the same order and limit as the in-memory view, straight from the database
+     */
+    private static List<Movie> fallback(List<Movie> movies, Comparator<Movie> order, int limit) {
+        return prefix(movies.stream().sorted(order).toArray(Movie[]::new), limit);
+    }
+
+    private static double ratingOf(Movie movie) {
+        if (movie.getRating() == null || movie.getRating().getAverage() == null) {
+            return 0.0;
+        }
+        return movie.getRating().getAverage();
+    }
+
+    private static LocalDate releaseDateOf(Movie movie) {
+        return movie.getReleaseDate() != null ? movie.getReleaseDate() : LocalDate.MIN;
+    }
+}
@@ -0,0 +1,145 @@
+package com.moviebooking.service;
+
+import com.moviebooking.event.ReviewChangedEvent;
+import com.moviebooking.repository.supabase.MovieRepository;
+import com.moviebooking.repository.supabase.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Review Aggregate Service
+ * Per-movie review count, rating sum and 1-10 histogram, rebuilt from one GROUP BY at startup
+ * and updated in place when a review is posted or edited, so stats reads are O(1).
+ * Movie.rating is brought in line with the aggregate by a background flush.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewAggregateService {
+
+    public static final int MIN_RATING = 1;
+    public static final int MAX_RATING = 10;
+
+    private final ReviewRepository reviewRepository;
+    private final MovieRepository movieRepository;
+    private final MovieRankingService movieRankingService;
+    private final CatalogVersionService catalogVersionService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, ReviewStats> stats = new ConcurrentHashMap<>();
+    private final Set<String> dirtyMovies = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Immutable snapshot; histogram[r] is the number of reviews rated r (index 0 unused)
+     */
+    public record ReviewStats(long count, long sum, long[] histogram) {
+
+        static final ReviewStats EMPTY = new ReviewStats(0, 0, new long[MAX_RATING + 1]);
+
+        public double average() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+
+        ReviewStats apply(Integer removedRating, Integer addedRating) {
+            long[] h = histogram.clone();
+            long c = count;
+            long s = sum;
+            if (isValid(removedRating)) {
+                h[removedRating]--;
+                c--;
+                s -= removedRating;
+            }
+            if (isValid(addedRating)) {
+                h[addedRating]++;
+                c++;
+                s += addedRating;
+            }
+            return new ReviewStats(c, s, h);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            Map<String, long[]> histograms = new HashMap<>();
+            for (Object[] row : reviewRepository.countByMovieAndRating()) {
+                Integer rating = (Integer) row[1];
+                if (isValid(rating)) {
+                    histograms.computeIfAbsent((String) row[0], k -> new long[MAX_RATING + 1])[rating] =
+                            ((Number) row[2]).longValue();
+                }
+            }
+            stats.clear();
+            histograms.forEach((movieId, h) -> {
+                long count = 0;
+                long sum = 0;
+                for (int r = MIN_RATING; r <= MAX_RATING; r++) {
+                    count += h[r];
+                    sum += h[r] * r;
+                }
+                stats.put(movieId, new ReviewStats(count, sum, h));
+            });
+            log.info("Review aggregates rebuilt for {} movies", stats.size());
+        } catch (Exception e) {
+            log.error("Failed to rebuild review aggregates: {}", e.getMessage());
+        }
+    }
+
+    public ReviewStats getStats(String movieId) {
+        return stats.getOrDefault(movieId, ReviewStats.EMPTY);
+    }
+
+    @TransactionalEventListener
+    public void onReviewChanged(ReviewChangedEvent event) {
+        String movieId = event.review().getMovieId();
+        Integer newRating = event.review().getRating();
+        if (!event.created() && Objects.equals(event.previousRating(), newRating)) {
+            return;  // edit without a rating change
+        }
+        // compute() runs atomically per key, so concurrent posts on one movie never lose an update
+        stats.compute(movieId, (id, current) ->
+                (current != null ? current : ReviewStats.EMPTY).apply(event.previousRating(), newRating));
+        dirtyMovies.add(movieId);
+    }
+
+    /**
+     * Copy the aggregate into Movie.rating for movies whose reviews changed since the last flush.
+     * Only the rating column is written; a bulk update bypasses the entity listener, so the
+     * catalog version is bumped here once the transaction has committed.
+     */
+    @Scheduled(fixedDelayString = "${reviews.rating-sync-ms:30000}")
+    public void syncMovieRatings() {
+        if (dirtyMovies.isEmpty()) {
+            return;
+        }
+        List<String> batch = new ArrayList<>(dirtyMovies);
+        dirtyMovies.removeAll(batch);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (String movieId : batch) {
+                    ReviewStats s = getStats(movieId);
+                    movieRepository.updateRating(movieId, Math.round(s.average() * 10.0) / 10.0, s.count());
+                }
+            });
+            catalogVersionService.bump(CatalogVersionService.Collection.MOVIES);
+            // Fresh copies for the ranking, which never mutates the movies it holds
+            movieRepository.findAllById(batch).forEach(movieRankingService::onMovieUpdated);
+        } catch (Exception e) {
+            log.error("Failed to sync movie ratings: {}", e.getMessage());
+            dirtyMovies.addAll(batch);
+        }
+    }
+
+    private static boolean isValid(Integer rating) {
+        return rating != null && rating >= MIN_RATING && rating <= MAX_RATING;
+    }
+}
@@ -0,0 +1,180 @@
+package com.moviebooking.service;
+
+import com.moviebooking.dto.response.CursorPage;
+import com.moviebooking.entity.supabase.Review;
+import com.moviebooking.event.ReviewChangedEvent;
+import com.moviebooking.repository.supabase.ReviewRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Review Feed Service
+ * Keyset pagination over a movie's reviews, newest first, on (created_at DESC, id).
+ * The head of each movie's feed is cached and patched in place when a review is posted or
+ * edited and when like counts are flushed, so first-page hits rarely touch the database.
+ * The total comes from the review aggregates instead of a COUNT query.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReviewFeedService {
+
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    public static final int MAX_PAGE_SIZE = 50;
+
+    private static final int CACHED_ROWS = MAX_PAGE_SIZE;
+    private static final int MAX_ENTRIES = 1024;
+
+    private final ReviewRepository reviewRepository;
+    private final ReviewAggregateService reviewAggregateService;
+    private final ReviewLikeService reviewLikeService;
+
+    @Value("${reviews.feed-cache-ttl-ms:60000}")
+    private long ttlMs;
+
+    private final Map<String, CachedHead> heads = new ConcurrentHashMap<>();
+
+    /**
+     * @param complete true when rows hold every review of the movie
+     */
+    private record CachedHead(List<Review> rows, boolean complete, long builtAtMillis) {}
+
+    @PostConstruct
+    void registerLikeListener() {
+        reviewLikeService.addFlushListener(deltas -> heads.replaceAll((movieId, head) -> {
+            List<Review> rows = null;
+            for (int i = 0; i < head.rows().size(); i++) {
+                Long delta = deltas.get(head.rows().get(i).getId());
+                if (delta != null) {
+                    if (rows == null) {
+                        rows = new ArrayList<>(head.rows());
+                    }
+                    rows.set(i, ReviewLikeService.withLikesAdded(rows.get(i), delta));
+                }
+            }
+            return rows != null ? new CachedHead(List.copyOf(rows), head.complete(), head.builtAtMillis()) : head;
+        }));
+    }
+
+    /**
+     * @param verifiedOnly only reviews by users with a completed booking for the movie
+     */
+    public CursorPage<Review> getFeed(String movieId, String cursor, int limit, boolean verifiedOnly) {
+        int size = clampLimit(limit);
+        List<Review> rows;
+        boolean hasMore;
+
+        if (cursor == null || cursor.isEmpty()) {
+            // The head holds CACHED_ROWS >= MAX_PAGE_SIZE rows unless it is the whole feed
+            CachedHead head = head(movieId);
+            List<Review> candidates = verifiedOnly
+                    ? head.rows().stream().filter(r -> Boolean.TRUE.equals(r.getIsVerifiedBooking())).toList()
+                    : head.rows();
+            if (candidates.size() > size || head.complete()) {
+                rows = candidates.subList(0, Math.min(size, candidates.size()));
+                hasMore = candidates.size() > size;
+            } else if (!verifiedOnly) {
+                rows = candidates;
+                hasMore = true;
+            } else {
+                // Too few verified reviews in the cached head to fill the page
+                rows = reviewRepository.findVerifiedFeedFirstPage(movieId, PageRequest.of(0, size + 1));
+                hasMore = rows.size() > size;
+            }
+        } else {
+            rows = fetch(movieId, cursor, size, verifiedOnly);
+            hasMore = rows.size() > size;
+        }
+
+        List<Review> items = (rows.size() > size ? rows.subList(0, size) : rows).stream()
+                .map(reviewLikeService::withPendingLikes)
+                .toList();
+        Review last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        return CursorPage.<Review>builder()
+                .items(items)
+                .nextCursor(hasMore && last != null
+                        ? CursorPage.encodeCursor(last.getCreatedAt().toString(), last.getId())
+                        : null)
+                .hasMore(hasMore)
+                .approximateTotal(verifiedOnly ? null : reviewAggregateService.getStats(movieId).count())
+                .build();
+    }
+
+    /**
+     * New reviews go on top of the cached head; edits replace the cached copy
+     */
+    @TransactionalEventListener
+    public void onReviewChanged(ReviewChangedEvent event) {
+        Review review = event.review();
+        heads.computeIfPresent(review.getMovieId(), (movieId, head) -> {
+            List<Review> rows = new ArrayList<>(head.rows());
+            rows.removeIf(r -> r.getId().equals(review.getId()));
+            boolean complete = head.complete();
+            if (event.created()) {
+                rows.add(0, review);
+            } else {
+                int at = indexOf(head.rows(), review.getId());
+                if (at < 0) {
+                    return head;  // edited review is past the cached head
+                }
+                rows.add(at, review);
+            }
+            if (rows.size() > CACHED_ROWS) {
+                rows = rows.subList(0, CACHED_ROWS);
+                complete = false;
+            }
+            return new CachedHead(List.copyOf(rows), complete, head.builtAtMillis());
+        });
+    }
+
+    private CachedHead head(String movieId) {
+        CachedHead head = heads.get(movieId);
+        if (head != null && System.currentTimeMillis() - head.builtAtMillis() < ttlMs) {
+            return head;
+        }
+        List<Review> rows = reviewRepository.findFeedFirstPage(movieId, PageRequest.of(0, CACHED_ROWS + 1));
+        boolean complete = rows.size() <= CACHED_ROWS;
+        head = new CachedHead(List.copyOf(complete ? rows : rows.subList(0, CACHED_ROWS)), complete,
+                System.currentTimeMillis());
+        if (heads.size() >= MAX_ENTRIES) {
+            heads.clear();
+        }
+        heads.put(movieId, head);
+        return head;
+    }
+
+    private List<Review> fetch(String movieId, String cursor, int size, boolean verifiedOnly) {
+        PageRequest page = PageRequest.of(0, size + 1);
+        String[] key = CursorPage.decodeCursor(cursor, 2);
+        LocalDateTime createdAt = CursorPage.parseKey(key[0], LocalDateTime::parse);
+        return verifiedOnly
+                ? reviewRepository.findVerifiedFeedPageAfter(movieId, createdAt, key[1], page)
+                : reviewRepository.findFeedPageAfter(movieId, createdAt, key[1], page);
+    }
+
+    private static int indexOf(List<Review> rows, String reviewId) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getId().equals(reviewId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int clampLimit(int limit) {
+        if (limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,207 @@
+package com.moviebooking.service;
+
+import com.moviebooking.entity.supabase.Review;
+import com.moviebooking.repository.supabase.ReviewRepository;
+import com.moviebooking.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Review Like Service
+ * Likes are counted in memory on a striped LongAdder per review and written out periodically,
+ * one "likes = likes + delta" UPDATE per distinct delta, so a like costs no database round trip.
+ * Repeat likes are dropped through two rotating Bloom filters keyed on voter and review
+ * (a rare false positive drops a genuine first like). Reads add the not-yet-written deltas.
+ * Only reviews confirmed to exist are counted; each id is checked once and then remembered.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewLikeService {
+
+    private static final int UPDATE_CHUNK = 500;
+    private static final double DEDUP_FALSE_POSITIVE_RATE = 0.01;
+    private static final int MAX_KNOWN_REVIEWS = 100_000;
+    private static final int DEDUP_STRIPES = 64;
+
+    private final ReviewRepository reviewRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${reviews.like-dedup-expected:2000000}")
+    private long dedupExpected;
+
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> inFlight = new ConcurrentHashMap<>();
+    private Map<String, LongAdder> retired = new HashMap<>();  // flush thread only
+    private final List<Consumer<Map<String, Long>>> flushListeners = new CopyOnWriteArrayList<>();
+    private final Set<String> knownReviews = ConcurrentHashMap.newKeySet();
+
+    private volatile BloomFilter currentVoters;
+    private volatile BloomFilter previousVoters;
+    // Check-and-set on the filters is several bit operations; a stripe lock makes it atomic per key
+    private final ReentrantLock[] dedupLocks = new ReentrantLock[DEDUP_STRIPES];
+
+    /**
+     * Whether likes for this id can be counted. The first call per review reads the database,
+     * later ones are answered from memory.
+     */
+    public boolean reviewExists(String reviewId) {
+        if (knownReviews.contains(reviewId)) {
+            return true;
+        }
+        if (!reviewRepository.existsById(reviewId)) {
+            return false;
+        }
+        if (knownReviews.size() >= MAX_KNOWN_REVIEWS) {
+            knownReviews.clear();
+        }
+        knownReviews.add(reviewId);
+        return true;
+    }
+
+    /**
+     * @param voter stable identity of whoever liked (user email, or client address when anonymous)
+     * @return false if this voter has (probably) liked the review already
+     */
+    public boolean like(String reviewId, String voter) {
+        String key = voter + "|" + reviewId;
+        ReentrantLock lock = dedupLocks[Math.floorMod(key.hashCode(), DEDUP_STRIPES)];
+        lock.lock();
+        try {
+            if (previousVoters.mightContain(key) || !currentVoters.put(key)) {
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+        pending.computeIfAbsent(reviewId, id -> new LongAdder()).increment();
+        return true;
+    }
+
+    /**
+     * Likes accepted for a review but not yet visible in its row
+     */
+    public long pendingLikes(String reviewId) {
+        LongAdder adder = pending.get(reviewId);
+        return (adder != null ? adder.sum() : 0L) + inFlight.getOrDefault(reviewId, 0L);
+    }
+
+    /**
+     * The review as readers should see it: a copy with pending likes added, or the review itself
+     * when nothing is pending (it is never modified, so cached instances stay untouched)
+     */
+    public Review withPendingLikes(Review review) {
+        long delta = pendingLikes(review.getId());
+        return delta != 0 ? withLikesAdded(review, delta) : review;
+    }
+
+    public static Review withLikesAdded(Review review, long delta) {
+        return Review.builder()
+                .id(review.getId())
+                .movieId(review.getMovieId())
+                .userId(review.getUserId())
+                .userName(review.getUserName())
+                .rating(review.getRating())
+                .review(review.getReview())
+                .hashtags(review.getHashtags())
+                .likes((review.getLikes() != null ? review.getLikes() : 0L) + delta)
+                .createdAt(review.getCreatedAt())
+                .isVerifiedBooking(review.getIsVerifiedBooking())
+                .build();
+    }
+
+    /**
+     * Called with review id -> delta after each successful flush
+     */
+    public void addFlushListener(Consumer<Map<String, Long>> listener) {
+        flushListeners.add(listener);
+    }
+
+    @PostConstruct
+    void initVoters() {
+        for (int i = 0; i < DEDUP_STRIPES; i++) {
+            dedupLocks[i] = new ReentrantLock();
+        }
+        currentVoters = new BloomFilter(dedupExpected, DEDUP_FALSE_POSITIVE_RATE);
+        previousVoters = new BloomFilter(1, DEDUP_FALSE_POSITIVE_RATE);
+    }
+
+    @Scheduled(fixedDelayString = "${reviews.like-flush-ms:1000}")
+    public synchronized void flush() {
+        Map<String, Long> batch = new HashMap<>();
+        Map<String, LongAdder> idle = new HashMap<>();
+        pending.forEach((id, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                batch.merge(id, delta, Long::sum);
+            } else if (pending.remove(id, adder)) {
+                idle.put(id, adder);
+            }
+        });
+        // A liker that looked an adder up just before it was removed increments it afterwards;
+        // keep removed adders for one more round so those late increments are still written
+        retired.forEach((id, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                batch.merge(id, delta, Long::sum);
+            }
+        });
+        retired = idle;
+
+        if (batch.isEmpty()) {
+            return;
+        }
+        inFlight.putAll(batch);
+
+        Map<Long, List<String>> idsByDelta = new HashMap<>();
+        batch.forEach((id, delta) -> idsByDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(id));
+        try {
+            transactionTemplate.executeWithoutResult(status -> idsByDelta.forEach((delta, ids) -> {
+                for (int i = 0; i < ids.size(); i += UPDATE_CHUNK) {
+                    reviewRepository.addLikes(ids.subList(i, Math.min(i + UPDATE_CHUNK, ids.size())), delta);
+                }
+            }));
+        } catch (Exception e) {
+            log.error("Failed to flush {} review like counters: {}", batch.size(), e.getMessage());
+            batch.forEach((id, delta) -> pending.computeIfAbsent(id, k -> new LongAdder()).add(delta));
+            batch.keySet().forEach(inFlight::remove);
+            return;
+        }
+        // Listeners see the written deltas before they stop being reported as in flight
+        flushListeners.forEach(listener -> {
+            try {
+                listener.accept(batch);
+            } catch (Exception e) {
+                log.error("Review like flush listener failed: {}", e.getMessage());
+            }
+        });
+        batch.keySet().forEach(inFlight::remove);
+    }
+
+    /**
+     * Start a new dedup generation; a voter is remembered for between one and two periods
+     */
+    @Scheduled(fixedDelayString = "${reviews.like-dedup-rotate-ms:604800000}", initialDelayString = "${reviews.like-dedup-rotate-ms:604800000}")
+    public void rotateVoters() {
+        previousVoters = currentVoters;
+        currentVoters = new BloomFilter(dedupExpected, DEDUP_FALSE_POSITIVE_RATE);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
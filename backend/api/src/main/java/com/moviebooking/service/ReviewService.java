@@ -0,0 +1,84 @@
+package com.moviebooking.service;
+
+import com.moviebooking.entity.supabase.Review;
+import com.moviebooking.event.ReviewChangedEvent;
+import com.moviebooking.repository.supabase.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Review Service
+ * Writes reviews and announces each change so the per-movie aggregates stay current.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReviewService {
+
+    private final ReviewRepository reviewRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final VerifiedViewerService verifiedViewerService;
+
+    /**
+     * Post a new review for a movie
+     */
+    @Transactional
+    public Review postReview(Long userId, String userName, String movieId, Review reviewRequest) {
+        validateRating(reviewRequest.getRating());
+
+        Review review = Review.builder()
+                .movieId(movieId)
+                .userId(userId)
+                .userName(userName)
+                .rating(reviewRequest.getRating())
+                .review(reviewRequest.getReview())
+                .hashtags(reviewRequest.getHashtags())
+                .likes(0L)
+                .createdAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))  // database precision, keeps feed cursors exact
+                .isVerifiedBooking(verifiedViewerService.isVerifiedViewer(movieId, userId))
+                .build();
+
+        Review saved = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(saved, null, true));
+        return saved;
+    }
+
+    /**
+     * Edit the rating, text or hashtags of the user's own review
+     */
+    @Transactional
+    public Review editReview(Long userId, String reviewId, Review reviewRequest) {
+        Review review = reviewRepository.findById(reviewId)
+                .orElseThrow(() -> new RuntimeException("Review not found"));
+        if (!review.getUserId().equals(userId)) {
+            throw new RuntimeException("You can only edit your own review");
+        }
+
+        Integer previousRating = review.getRating();
+        if (reviewRequest.getRating() != null) {
+            validateRating(reviewRequest.getRating());
+            review.setRating(reviewRequest.getRating());
+        }
+        if (reviewRequest.getReview() != null) {
+            review.setReview(reviewRequest.getReview());
+        }
+        if (reviewRequest.getHashtags() != null) {
+            review.setHashtags(reviewRequest.getHashtags());
+        }
+
+        Review saved = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(saved, previousRating, false));
+        return saved;
+    }
+
+    private void validateRating(Integer rating) {
+        if (rating == null || rating < ReviewAggregateService.MIN_RATING || rating > ReviewAggregateService.MAX_RATING) {
+            throw new RuntimeException("Rating must be between " + ReviewAggregateService.MIN_RATING
+                    + " and " + ReviewAggregateService.MAX_RATING);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.moviebooking.service;
+
+import com.moviebooking.entity.supabase.ShowSeat;
+import com.moviebooking.event.BookingCompletedEvent;
+import com.moviebooking.event.SeatsChangedEvent;
+import com.moviebooking.repository.supabase.ShowSeatRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Seat Counter Service
+ * Cached per-show, per-tier seat counts for listing screens (grid, calendar, concierge).
+ * Misses for a whole batch of shows are loaded with one GROUP BY query. Entries are evicted
+ * when seats change and otherwise expire after a short TTL, since seat locks lapse silently.
+ * Not for booking decisions - those always read the locked rows.
+ */
+@Service
+@RequiredArgsConstructor
+public class SeatCounterService {
+
+    private static final int MAX_ENTRIES = 50_000;
+
+    private final ShowSeatRepository showSeatRepository;
+
+    @Value("${seats.counter-ttl-ms:30000}")
+    private long ttlMs;
+
+    private final Map<String, ShowSeatCounts> counts = new ConcurrentHashMap<>();
+    private final List<Consumer<Collection<String>>> changeListeners = new CopyOnWriteArrayList<>();
+
+    public enum AvailabilityBand {
+        AVAILABLE, FILLING_FAST, ALMOST_FULL, SOLD_OUT, UNKNOWN;
+
+        public static AvailabilityBand of(long available, long total) {
+            if (total == 0) {
+                return UNKNOWN;
+            }
+            double ratio = (double) available / total;
+            if (ratio == 0) {
+                return SOLD_OUT;
+            }
+            if (ratio <= 0.2) {
+                return ALMOST_FULL;
+            }
+            if (ratio <= 0.5) {
+                return FILLING_FAST;
+            }
+            return AVAILABLE;
+        }
+    }
+
+    public record ShowSeatCounts(Map<ShowSeat.SeatTier, Long> availableByTier,
+                                 Map<ShowSeat.SeatTier, Long> totalByTier,
+                                 long loadedAtMillis) {
+
+        public long available() {
+            return availableByTier.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long total() {
+            return totalByTier.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public AvailabilityBand band() {
+            return AvailabilityBand.of(available(), total());
+        }
+    }
+
+    private static final ShowSeatCounts EMPTY = new ShowSeatCounts(Map.of(), Map.of(), 0);
+
+    public ShowSeatCounts getCounts(String showId) {
+        return getCounts(List.of(showId)).getOrDefault(showId, EMPTY);
+    }
+
+    /**
+     * Counts for every requested show; shows without seats map to empty counts
+     */
+    public Map<String, ShowSeatCounts> getCounts(Collection<String> showIds) {
+        long now = System.currentTimeMillis();
+        Map<String, ShowSeatCounts> result = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+
+        for (String showId : showIds) {
+            ShowSeatCounts cached = counts.get(showId);
+            if (cached != null && now - cached.loadedAtMillis() < ttlMs) {
+                result.put(showId, cached);
+            } else {
+                misses.add(showId);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            Map<String, Map<ShowSeat.SeatTier, Long>> available = new HashMap<>();
+            Map<String, Map<ShowSeat.SeatTier, Long>> total = new HashMap<>();
+            for (Object[] row : showSeatRepository.countSeatsByShowAndTier(misses, LocalDateTime.now())) {
+                String showId = (String) row[0];
+                ShowSeat.SeatTier tier = (ShowSeat.SeatTier) row[1];
+                total.computeIfAbsent(showId, k -> new EnumMap<>(ShowSeat.SeatTier.class))
+                        .put(tier, ((Number) row[2]).longValue());
+                available.computeIfAbsent(showId, k -> new EnumMap<>(ShowSeat.SeatTier.class))
+                        .put(tier, row[3] != null ? ((Number) row[3]).longValue() : 0L);
+            }
+
+            if (counts.size() + misses.size() > MAX_ENTRIES) {
+                counts.clear();
+            }
+            for (String showId : misses) {
+                ShowSeatCounts loaded = new ShowSeatCounts(
+                        available.getOrDefault(showId, Map.of()),
+                        total.getOrDefault(showId, Map.of()),
+                        now);
+                counts.put(showId, loaded);
+                result.put(showId, loaded);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Register a callback receiving the affected show ids after the counters are evicted,
+     * for caches built on top of these counters
+     */
+    public void addChangeListener(Consumer<Collection<String>> listener) {
+        changeListeners.add(listener);
+    }
+
+    public void invalidate(Collection<String> showIds) {
+        showIds.forEach(counts::remove);
+        changeListeners.forEach(listener -> listener.accept(showIds));
+    }
+
+    @TransactionalEventListener
+    public void onSeatsChanged(SeatsChangedEvent event) {
+        invalidate(event.showIds());
+    }
+
+    @TransactionalEventListener
+    public void onBookingCompleted(BookingCompletedEvent event) {
+        invalidate(List.of(event.showId()));
+    }
+}
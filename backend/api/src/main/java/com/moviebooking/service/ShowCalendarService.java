@@ -0,0 +1,89 @@
+package com.moviebooking.service;
+
+import com.moviebooking.dto.response.ShowCalendarResponse;
+import com.moviebooking.repository.supabase.ShowRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Show Calendar Service
+ * Which upcoming dates have shows for a movie (optionally in one city), with a rough availability
+ * level per date, from a single GROUP BY over shows and their seats. Results are cached per
+ * movie/city/window and dropped when shows change or seats of any included show change.
+ */
+@Service
+@RequiredArgsConstructor
+public class ShowCalendarService {
+
+    public static final int MAX_DAYS = 30;
+    private static final int MAX_ENTRIES = 4096;
+
+    private final ShowRepository showRepository;
+    private final SeatCounterService seatCounterService;
+    private final CatalogVersionService catalogVersionService;
+
+    @Value("${seats.counter-ttl-ms:30000}")
+    private long ttlMs;
+
+    private final Map<String, CachedCalendar> calendars = new ConcurrentHashMap<>();
+
+    private record CachedCalendar(ShowCalendarResponse calendar, Set<String> showIds, long showsVersion,
+                                  LocalDate builtFor, long builtAtMillis) {}
+
+    @PostConstruct
+    void registerSeatListener() {
+        seatCounterService.addChangeListener(showIds ->
+                calendars.values().removeIf(cached -> showIds.stream().anyMatch(cached.showIds()::contains)));
+    }
+
+    public ShowCalendarResponse getCalendar(String movieId, String city, int days) {
+        int window = Math.max(1, Math.min(days, MAX_DAYS));
+        String cityFilter = city != null && !city.isEmpty() ? city : null;
+        String key = movieId + "|" + (cityFilter != null ? cityFilter.toLowerCase() : "") + "|" + window;
+        long showsVersion = catalogVersionService.version(CatalogVersionService.Collection.SHOWS);
+        LocalDate today = LocalDate.now();
+
+        CachedCalendar cached = calendars.get(key);
+        if (cached != null && cached.showsVersion() == showsVersion && cached.builtFor().equals(today)
+                && System.currentTimeMillis() - cached.builtAtMillis() < ttlMs) {
+            return cached.calendar();
+        }
+
+        Map<LocalDate, long[]> byDate = new TreeMap<>();  // date -> {shows, total seats, bookable seats}
+        Set<String> showIds = new HashSet<>();
+        for (Object[] row : showRepository.aggregateSeatsByDateForMovie(
+                movieId, cityFilter, today, today.plusDays(window - 1L), LocalDateTime.now())) {
+            long[] acc = byDate.computeIfAbsent((LocalDate) row[0], d -> new long[3]);
+            showIds.add((String) row[1]);
+            acc[0]++;
+            acc[1] += ((Number) row[2]).longValue();
+            acc[2] += row[3] != null ? ((Number) row[3]).longValue() : 0L;
+        }
+
+        List<ShowCalendarResponse.Day> dayList = new ArrayList<>();
+        byDate.forEach((date, acc) -> dayList.add(ShowCalendarResponse.Day.builder()
+                .date(date.toString())
+                .showCount(acc[0])
+                .availability(SeatCounterService.AvailabilityBand.of(acc[2], acc[1]).name())
+                .build()));
+
+        ShowCalendarResponse calendar = ShowCalendarResponse.builder()
+                .movieId(movieId)
+                .city(cityFilter)
+                .days(dayList)
+                .build();
+
+        if (calendars.size() >= MAX_ENTRIES) {
+            calendars.clear();
+        }
+        calendars.put(key, new CachedCalendar(calendar, showIds, showsVersion, today, System.currentTimeMillis()));
+        return calendar;
+    }
+}
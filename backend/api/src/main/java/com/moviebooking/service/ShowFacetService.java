@@ -0,0 +1,398 @@
+package com.moviebooking.service;
+
+import com.moviebooking.dto.response.ShowSearchResponse;
+import com.moviebooking.entity.supabase.Movie;
+import com.moviebooking.entity.supabase.Show;
+import com.moviebooking.entity.supabase.ShowSeat;
+import com.moviebooking.entity.supabase.Theater;
+import com.moviebooking.event.ShowChangedEvent;
+import com.moviebooking.repository.supabase.MovieRepository;
+import com.moviebooking.repository.supabase.ShowRepository;
+import com.moviebooking.repository.supabase.TheaterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Show Facet Service
+ * Faceted search over active, upcoming shows. Every (dimension, value) pair has a BitSet of the
+ * shows carrying it. A query ORs the selected values within a dimension, then makes one pass over
+ * the live shows: a show failing no filter is a hit and counts towards every facet, a show failing
+ * exactly one dimension counts only towards that dimension (so each facet shows what picking it would add).
+ * Shows are appended or tombstoned as they change; a rebuild compacts and drops past dates.
+ * Rebuilds run off the writer's thread, and changes that arrive while one is reading the database
+ * are buffered and replayed onto the new index before it is swapped in.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShowFacetService {
+
+    private static final double MAX_DEAD_RATIO = 0.25;
+
+    private final ShowRepository showRepository;
+    private final MovieRepository movieRepository;
+    private final TheaterRepository theaterRepository;
+    private final PricingService pricingService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private FacetIndex index = new FacetIndex();
+    // Non-null while a rebuild is running: changes applied since it started reading (guarded by lock)
+    private List<Change> pendingChanges;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean compactionQueued = new AtomicBoolean();
+    private ExecutorService compactionExecutor;
+
+    // Movies and theaters the indexed shows refer to, so a show change needs no lookups; refreshed on rebuild
+    private volatile Map<String, Movie> movies = new ConcurrentHashMap<>();
+    private volatile Map<String, Theater> theaters = new ConcurrentHashMap<>();
+
+    // values == null means the show left the index
+    private record Change(Show show, String[][] values) {}
+
+    public enum Dimension {
+        CITY, DATE, FORMAT, LANGUAGE, FACILITY, PRICE_BAND, TIME_OF_DAY
+    }
+
+    public enum PriceBand {
+        BUDGET, STANDARD, PREMIUM, LUXURY;
+
+        static PriceBand of(BigDecimal startingPrice) {
+            if (startingPrice.compareTo(new BigDecimal("200")) < 0) {
+                return BUDGET;
+            }
+            if (startingPrice.compareTo(new BigDecimal("350")) < 0) {
+                return STANDARD;
+            }
+            if (startingPrice.compareTo(new BigDecimal("500")) < 0) {
+                return PREMIUM;
+            }
+            return LUXURY;
+        }
+    }
+
+    private static final class FacetIndex {
+        final List<Show> docs = new ArrayList<>();
+        final List<String[][]> docValues = new ArrayList<>();
+        final Map<String, Integer> docByShowId = new HashMap<>();
+        final BitSet alive = new BitSet();
+        final EnumMap<Dimension, Map<String, BitSet>> postings = new EnumMap<>(Dimension.class);
+        LocalDate builtFor = LocalDate.MIN;
+
+        FacetIndex() {
+            for (Dimension d : Dimension.values()) {
+                postings.put(d, new HashMap<>());
+            }
+        }
+
+        void add(Show show, String[][] values) {
+            Integer previous = docByShowId.get(show.getId());
+            if (previous != null) {
+                alive.clear(previous);
+            }
+            int doc = docs.size();
+            docs.add(show);
+            docValues.add(values);
+            docByShowId.put(show.getId(), doc);
+            alive.set(doc);
+            for (Dimension d : Dimension.values()) {
+                for (String v : values[d.ordinal()]) {
+                    postings.get(d).computeIfAbsent(v, k -> new BitSet()).set(doc);
+                }
+            }
+        }
+
+        void remove(String showId) {
+            Integer doc = docByShowId.remove(showId);
+            if (doc != null) {
+                alive.clear(doc);
+            }
+        }
+
+        int deadCount() {
+            return docs.size() - alive.cardinality();
+        }
+    }
+
+    @PostConstruct
+    void startCompactionExecutor() {
+        compactionExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "show-facet-compaction");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stopCompactionExecutor() {
+        compactionExecutor.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    /**
+     * Full rebuild: compacts tombstones and drops shows whose date has passed
+     */
+    @Scheduled(cron = "${shows.facet-rebuild-cron:0 5 0 * * *}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            LocalDate today = LocalDate.now();
+            List<Show> shows = showRepository.findActiveFromDate(today);
+            Map<String, Movie> freshMovies = movieRepository.findAllById(
+                    shows.stream().map(Show::getMovieId).filter(Objects::nonNull).collect(Collectors.toSet())).stream()
+                    .collect(Collectors.toConcurrentMap(Movie::getId, Function.identity()));
+            Map<String, Theater> freshTheaters = theaterRepository.findAllById(
+                    shows.stream().map(Show::getTheaterId).filter(Objects::nonNull).collect(Collectors.toSet())).stream()
+                    .collect(Collectors.toConcurrentMap(Theater::getId, Function.identity()));
+
+            FacetIndex fresh = new FacetIndex();
+            fresh.builtFor = today;
+            for (Show show : shows) {
+                fresh.add(show, valuesOf(show, freshMovies.get(show.getMovieId()), freshTheaters.get(show.getTheaterId())));
+            }
+            movies = freshMovies;
+            theaters = freshTheaters;
+
+            int replayed;
+            lock.writeLock().lock();
+            try {
+                // The rows read above may predate these changes, so apply them again on top
+                replayed = pendingChanges.size();
+                for (Change change : pendingChanges) {
+                    apply(fresh, change);
+                }
+                index = fresh;
+            } finally {
+                pendingChanges = null;
+                lock.writeLock().unlock();
+            }
+            log.info("Show facet index built with {} shows ({} changes replayed)", shows.size(), replayed);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Failed to build show facet index: {}", e.getMessage());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShowChanged(ShowChangedEvent event) {
+        Show show = event.show();
+        boolean indexable = !event.removed()
+                && Boolean.TRUE.equals(show.getIsActive())
+                && show.getShowDate() != null
+                && !show.getShowDate().isBefore(LocalDate.now());
+
+        // Resolve movie and theater outside the lock; only ones the index has not seen hit the database
+        Change change = new Change(show, indexable
+                ? valuesOf(show, movieOf(show.getMovieId()), theaterOf(show.getTheaterId()))
+                : null);
+
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            apply(index, change);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            compact = index.deadCount() > MAX_DEAD_RATIO * Math.max(1, index.docs.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) {
+            requestCompaction();
+        }
+    }
+
+    private static void apply(FacetIndex target, Change change) {
+        if (change.values() != null) {
+            target.add(change.show(), change.values());
+        } else {
+            target.remove(change.show().getId());
+        }
+    }
+
+    // At most one compaction is queued; changes arriving meanwhile are covered by it
+    private void requestCompaction() {
+        if (!compactionQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            compactionExecutor.execute(() -> {
+                compactionQueued.set(false);
+                rebuild();
+            });
+        } catch (RejectedExecutionException e) {
+            compactionQueued.set(false);
+        }
+    }
+
+    private Movie movieOf(String movieId) {
+        if (movieId == null) {
+            return null;
+        }
+        Map<String, Movie> known = movies;
+        Movie movie = known.get(movieId);
+        if (movie == null) {
+            movie = movieRepository.findById(movieId).orElse(null);
+            if (movie != null) {
+                known.put(movieId, movie);
+            }
+        }
+        return movie;
+    }
+
+    private Theater theaterOf(String theaterId) {
+        if (theaterId == null) {
+            return null;
+        }
+        Map<String, Theater> known = theaters;
+        Theater theater = known.get(theaterId);
+        if (theater == null) {
+            theater = theaterRepository.findById(theaterId).orElse(null);
+            if (theater != null) {
+                known.put(theaterId, theater);
+            }
+        }
+        return theater;
+    }
+
+    /**
+     * @param filters selected values per dimension; values within a dimension are OR-ed, dimensions AND-ed
+     */
+    public ShowSearchResponse search(Map<Dimension, Collection<String>> filters, int limit) {
+        lock.readLock().lock();
+        try {
+            FacetIndex idx = index;
+            Dimension[] dims = Dimension.values();
+
+            BitSet[] selected = new BitSet[dims.length];
+            for (Dimension d : dims) {
+                Collection<String> values = filters.get(d);
+                if (values == null || values.isEmpty()) {
+                    continue;
+                }
+                BitSet union = new BitSet();
+                for (String v : values) {
+                    BitSet posting = idx.postings.get(d).get(normalize(d, v));
+                    if (posting != null) {
+                        union.or(posting);
+                    }
+                }
+                selected[d.ordinal()] = union;
+            }
+
+            List<Map<String, Long>> counts = new ArrayList<>();
+            for (int i = 0; i < dims.length; i++) {
+                counts.add(new HashMap<>());
+            }
+            List<Show> hits = new ArrayList<>();
+
+            for (int doc = idx.alive.nextSetBit(0); doc >= 0; doc = idx.alive.nextSetBit(doc + 1)) {
+                int failedDim = -1;
+                int failures = 0;
+                for (int d = 0; d < dims.length && failures < 2; d++) {
+                    if (selected[d] != null && !selected[d].get(doc)) {
+                        failures++;
+                        failedDim = d;
+                    }
+                }
+                String[][] values = idx.docValues.get(doc);
+                if (failures == 0) {
+                    hits.add(idx.docs.get(doc));
+                    for (int d = 0; d < dims.length; d++) {
+                        increment(counts.get(d), values[d]);
+                    }
+                } else if (failures == 1) {
+                    increment(counts.get(failedDim), values[failedDim]);
+                }
+            }
+
+            hits.sort(Comparator.comparing(Show::getStartsAt, Comparator.nullsLast(Comparator.naturalOrder())));
+
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            for (Dimension d : dims) {
+                facets.put(d.name(), counts.get(d.ordinal()));
+            }
+            return ShowSearchResponse.builder()
+                    .total(hits.size())
+                    .shows(hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits)
+                    .facets(facets)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void increment(Map<String, Long> counts, String[] values) {
+        for (String v : values) {
+            counts.merge(v, 1L, Long::sum);
+        }
+    }
+
+    private String[][] valuesOf(Show show, Movie movie, Theater theater) {
+        String[][] values = new String[Dimension.values().length][];
+        values[Dimension.CITY.ordinal()] = single(show.getTheaterCity() != null ? normalize(Dimension.CITY, show.getTheaterCity()) : null);
+        values[Dimension.DATE.ordinal()] = single(show.getShowDate() != null ? show.getShowDate().toString() : null);
+        values[Dimension.FORMAT.ordinal()] = single(show.getFormat() != null ? show.getFormat().name() : null);
+        values[Dimension.LANGUAGE.ordinal()] = single(show.getLanguage() != null ? normalize(Dimension.LANGUAGE, show.getLanguage()) : null);
+        values[Dimension.FACILITY.ordinal()] = theater != null && theater.getFacilities() != null
+                ? theater.getFacilities().stream().map(f -> normalize(Dimension.FACILITY, f)).distinct().toArray(String[]::new)
+                : new String[0];
+        values[Dimension.PRICE_BAND.ordinal()] = single(show.getFormat() != null
+                ? PriceBand.of(pricingService.calculateSeatPrice(show, ShowSeat.SeatTier.CLASSIC, movie)).name()
+                : null);
+        values[Dimension.TIME_OF_DAY.ordinal()] = single(show.getStartsAt() != null
+                ? UpcomingShowIndex.TimeOfDay.of(show.getStartsAt().toLocalTime()).name()
+                : null);
+        return values;
+    }
+
+    private static String[] single(String value) {
+        return value != null ? new String[]{value} : new String[0];
+    }
+
+    private static String normalize(Dimension dimension, String value) {
+        return switch (dimension) {
+            case FORMAT, PRICE_BAND, TIME_OF_DAY -> value.toUpperCase();
+            case DATE -> value;
+            default -> value.toLowerCase();
+        };
+    }
+}
@@ -0,0 +1,177 @@
+package com.moviebooking.service;
+
+import com.moviebooking.dto.response.ShowtimeGridResponse;
+import com.moviebooking.entity.supabase.Movie;
+import com.moviebooking.entity.supabase.Show;
+import com.moviebooking.entity.supabase.ShowSeat;
+import com.moviebooking.entity.supabase.Theater;
+import com.moviebooking.repository.supabase.MovieRepository;
+import com.moviebooking.repository.supabase.ShowRepository;
+import com.moviebooking.repository.supabase.TheaterRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Showtime Grid Service
+ * Builds the movies x theaters x showtimes grid for a city and date from one indexed show query
+ * plus one batched lookup each for movies, theaters and seat counters.
+ * Grids are cached per city and date and dropped when shows or any of their seats change.
+ */
+@Service
+@RequiredArgsConstructor
+public class ShowtimeGridService {
+
+    private static final int MAX_GRIDS = 512;
+
+    private final ShowRepository showRepository;
+    private final MovieRepository movieRepository;
+    private final TheaterRepository theaterRepository;
+    private final SeatCounterService seatCounterService;
+    private final PricingService pricingService;
+    private final CatalogVersionService catalogVersionService;
+
+    // Availability bands go stale as seat locks lapse, so grids live no longer than the counters
+    @Value("${seats.counter-ttl-ms:30000}")
+    private long ttlMs;
+
+    private final Map<String, CachedGrid> grids = new ConcurrentHashMap<>();
+
+    private record CachedGrid(ShowtimeGridResponse grid, Set<String> showIds, long showsVersion, long builtAtMillis) {}
+
+    @PostConstruct
+    void registerSeatListener() {
+        seatCounterService.addChangeListener(showIds ->
+                grids.values().removeIf(cached -> showIds.stream().anyMatch(cached.showIds()::contains)));
+    }
+
+    public ShowtimeGridResponse getGrid(String city, LocalDate date) {
+        String key = city.toLowerCase() + "|" + date;
+        long showsVersion = catalogVersionService.version(CatalogVersionService.Collection.SHOWS);
+
+        CachedGrid cached = grids.get(key);
+        if (cached != null && cached.showsVersion() == showsVersion
+                && System.currentTimeMillis() - cached.builtAtMillis() < ttlMs) {
+            return cached.grid();
+        }
+
+        List<Show> shows = showRepository.findByCityAndDate(city, date);
+        ShowtimeGridResponse grid = build(city, date, shows);
+
+        if (grids.size() >= MAX_GRIDS) {
+            grids.clear();
+        }
+        grids.put(key, new CachedGrid(grid,
+                shows.stream().map(Show::getId).collect(Collectors.toSet()),
+                showsVersion,
+                System.currentTimeMillis()));
+        return grid;
+    }
+
+    private ShowtimeGridResponse build(String city, LocalDate date, List<Show> shows) {
+        Set<String> movieIds = shows.stream().map(Show::getMovieId).collect(Collectors.toSet());
+        Set<String> theaterIds = shows.stream().map(Show::getTheaterId).collect(Collectors.toSet());
+
+        Map<String, Movie> movies = movieRepository.findAllById(movieIds).stream()
+                .collect(Collectors.toMap(Movie::getId, Function.identity()));
+        Map<String, Theater> theaters = theaterRepository.findAllById(theaterIds).stream()
+                .collect(Collectors.toMap(Theater::getId, Function.identity()));
+        Map<String, SeatCounterService.ShowSeatCounts> counts = seatCounterService.getCounts(
+                shows.stream().map(Show::getId).toList());
+
+        // movie -> theater -> shows, both levels sorted for stable output
+        Map<String, Map<String, List<Show>>> byMovie = new TreeMap<>();
+        for (Show show : shows) {
+            byMovie.computeIfAbsent(show.getMovieId(), k -> new TreeMap<>())
+                    .computeIfAbsent(show.getTheaterId(), k -> new ArrayList<>())
+                    .add(show);
+        }
+
+        List<ShowtimeGridResponse.MovieRow> rows = new ArrayList<>();
+        for (Map.Entry<String, Map<String, List<Show>>> movieEntry : byMovie.entrySet()) {
+            Movie movie = movies.get(movieEntry.getKey());
+            List<ShowtimeGridResponse.TheaterRow> theaterRows = new ArrayList<>();
+
+            for (Map.Entry<String, List<Show>> theaterEntry : movieEntry.getValue().entrySet()) {
+                Theater theater = theaters.get(theaterEntry.getKey());
+                Show first = theaterEntry.getValue().get(0);
+
+                List<ShowtimeGridResponse.Showtime> showtimes = theaterEntry.getValue().stream()
+                        .sorted(Comparator.comparing(Show::getShowTime, Comparator.nullsLast(Comparator.naturalOrder())))
+                        .map(s -> toShowtime(s, movie, counts.get(s.getId())))
+                        .toList();
+
+                theaterRows.add(ShowtimeGridResponse.TheaterRow.builder()
+                        .theaterId(theaterEntry.getKey())
+                        .name(theater != null ? theater.getName() : first.getTheaterName())
+                        .address(theater != null ? theater.getAddress() : null)
+                        .showtimes(showtimes)
+                        .build());
+            }
+            theaterRows.sort(Comparator.comparing(ShowtimeGridResponse.TheaterRow::getName,
+                    Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+
+            Show first = movieEntry.getValue().values().iterator().next().get(0);
+            rows.add(ShowtimeGridResponse.MovieRow.builder()
+                    .movieId(movieEntry.getKey())
+                    .title(movie != null ? movie.getTitle() : first.getMovieTitle())
+                    .posterUrl(movie != null ? movie.getPosterUrl() : first.getMoviePosterUrl())
+                    .certificate(movie != null ? movie.getCertificate() : null)
+                    .duration(movie != null ? movie.getDuration() : null)
+                    .theaters(theaterRows)
+                    .build());
+        }
+        rows.sort(Comparator.comparing(ShowtimeGridResponse.MovieRow::getTitle,
+                Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+
+        return ShowtimeGridResponse.builder()
+                .city(city)
+                .date(date.toString())
+                .movies(rows)
+                .build();
+    }
+
+    private ShowtimeGridResponse.Showtime toShowtime(Show show, Movie movie, SeatCounterService.ShowSeatCounts seatCounts) {
+        return ShowtimeGridResponse.Showtime.builder()
+                .showId(show.getId())
+                .time(show.getShowTime())
+                .format(show.getFormat() != null ? show.getFormat().name() : null)
+                .language(show.getLanguage())
+                .availability(seatCounts != null ? seatCounts.band().name() : SeatCounterService.AvailabilityBand.UNKNOWN.name())
+                .startingPrice(startingPrice(show, movie, seatCounts))
+                .build();
+    }
+
+    /**
+     * Cheapest tier that still has seats; if nothing is bookable, the cheapest tier overall
+     */
+    private BigDecimal startingPrice(Show show, Movie movie, SeatCounterService.ShowSeatCounts seatCounts) {
+        if (show.getFormat() == null) {
+            return null;
+        }
+        BigDecimal cheapestAvailable = null;
+        BigDecimal cheapest = null;
+        for (ShowSeat.SeatTier tier : ShowSeat.SeatTier.values()) {
+            if (seatCounts != null && !seatCounts.totalByTier().isEmpty() && !seatCounts.totalByTier().containsKey(tier)) {
+                continue;  // tier not present in this screen
+            }
+            BigDecimal price = pricingService.calculateSeatPrice(show, tier, movie);
+            if (cheapest == null || price.compareTo(cheapest) < 0) {
+                cheapest = price;
+            }
+            boolean hasSeats = seatCounts != null && seatCounts.availableByTier().getOrDefault(tier, 0L) > 0;
+            if (hasSeats && (cheapestAvailable == null || price.compareTo(cheapestAvailable) < 0)) {
+                cheapestAvailable = price;
+            }
+        }
+        return cheapestAvailable != null ? cheapestAvailable : cheapest;
+    }
+}
@@ -0,0 +1,198 @@
+package com.moviebooking.service;
+
+import com.moviebooking.entity.supabase.Movie;
+import com.moviebooking.entity.supabase.Theater;
+import com.moviebooking.repository.supabase.TheaterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Theater Geo Index Service
+ * In-memory 2-d tree over theater coordinates for "theaters near me".
+ * Nearest-k and within-radius queries prune subtrees by a lower bound on the great-circle distance
+ * to the splitting plane, so only a handful of nodes are visited even with tens of thousands of theaters.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TheaterGeoIndexService {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    private final TheaterRepository theaterRepository;
+
+    private volatile KdTree tree = KdTree.build(List.of());
+
+    public record NearbyTheater(Theater theater, double distanceKm) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    /**
+     * Theaters rarely move; a periodic rebuild also picks up rows added directly in the database
+     */
+    @Scheduled(fixedDelayString = "${geo.rebuild-interval-ms:900000}", initialDelayString = "${geo.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        try {
+            List<Theater> located = theaterRepository.findAll().stream()
+                    .filter(t -> t.getLatitude() != null && t.getLongitude() != null)
+                    .toList();
+            tree = KdTree.build(located);
+            log.info("Theater geo index built with {} theaters", located.size());
+        } catch (Exception e) {
+            log.error("Failed to build theater geo index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The k theaters closest to (lat, lng), optionally restricted by facility and screen format
+     */
+    public List<NearbyTheater> findNearest(double lat, double lng, int k, String facility, Movie.MovieFormat format) {
+        if (k <= 0) {
+            return List.of();
+        }
+        return tree.nearest(lat, lng, k, Double.POSITIVE_INFINITY, filterFor(facility, format));
+    }
+
+    /**
+     * Every theater within radiusKm of (lat, lng), closest first, capped at limit
+     */
+    public List<NearbyTheater> findWithinRadius(double lat, double lng, double radiusKm, int limit,
+                                                String facility, Movie.MovieFormat format) {
+        if (limit <= 0 || radiusKm <= 0) {
+            return List.of();
+        }
+        return tree.nearest(lat, lng, limit, radiusKm, filterFor(facility, format));
+    }
+
+    private Predicate<Theater> filterFor(String facility, Movie.MovieFormat format) {
+        Predicate<Theater> filter = t -> true;
+        if (facility != null && !facility.isEmpty()) {
+            filter = filter.and(t -> t.getFacilities() != null
+                    && t.getFacilities().stream().anyMatch(f -> f.equalsIgnoreCase(facility)));
+        }
+        if (format != null) {
+            filter = filter.and(t -> t.getScreens() != null
+                    && t.getScreens().stream().anyMatch(s -> s.getFormats() != null && s.getFormats().contains(format)));
+        }
+        return filter;
+    }
+
+    static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Immutable k-d tree stored in flat arrays (implicit layout, median at the middle of each range).
+     * Axis 0 splits on latitude, axis 1 on longitude.
+     */
+    private static final class KdTree {
+
+        private final Theater[] theaters;
+        private final double[] lats;
+        private final double[] lngs;
+        // cos of the highest |latitude| in the tree, used to bound east-west distances from below
+        private final double cosMaxLat;
+
+        private KdTree(Theater[] theaters) {
+            this.theaters = theaters;
+            this.lats = new double[theaters.length];
+            this.lngs = new double[theaters.length];
+            double maxAbsLat = 0;
+            for (int i = 0; i < theaters.length; i++) {
+                lats[i] = theaters[i].getLatitude();
+                lngs[i] = theaters[i].getLongitude();
+                maxAbsLat = Math.max(maxAbsLat, Math.abs(lats[i]));
+            }
+            this.cosMaxLat = Math.cos(Math.toRadians(maxAbsLat));
+        }
+
+        static KdTree build(List<Theater> located) {
+            Theater[] items = located.toArray(new Theater[0]);
+            sortRange(items, 0, items.length, 0);
+            return new KdTree(items);
+        }
+
+        private static void sortRange(Theater[] items, int from, int to, int axis) {
+            if (to - from <= 1) {
+                return;
+            }
+            Comparator<Theater> cmp = axis == 0
+                    ? Comparator.comparingDouble(Theater::getLatitude)
+                    : Comparator.comparingDouble(Theater::getLongitude);
+            Arrays.sort(items, from, to, cmp);
+            int mid = (from + to) >>> 1;
+            sortRange(items, from, mid, 1 - axis);
+            sortRange(items, mid + 1, to, 1 - axis);
+        }
+
+        List<NearbyTheater> nearest(double lat, double lng, int k, double maxKm, Predicate<Theater> filter) {
+            // Max-heap on distance holding the best k candidates seen so far
+            PriorityQueue<NearbyTheater> best = new PriorityQueue<>(
+                    Comparator.comparingDouble(NearbyTheater::distanceKm).reversed());
+            search(0, theaters.length, 0, lat, lng, k, maxKm, filter, best);
+
+            List<NearbyTheater> result = new ArrayList<>(best);
+            result.sort(Comparator.comparingDouble(NearbyTheater::distanceKm));
+            return result;
+        }
+
+        private void search(int from, int to, int axis, double lat, double lng, int k, double maxKm,
+                            Predicate<Theater> filter, PriorityQueue<NearbyTheater> best) {
+            if (from >= to) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+
+            double d = haversineKm(lat, lng, lats[mid], lngs[mid]);
+            if (d <= maxKm && filter.test(theaters[mid])) {
+                if (best.size() < k) {
+                    best.add(new NearbyTheater(theaters[mid], d));
+                } else if (d < best.peek().distanceKm()) {
+                    best.poll();
+                    best.add(new NearbyTheater(theaters[mid], d));
+                }
+            }
+
+            double delta = axis == 0 ? lat - lats[mid] : lng - lngs[mid];
+            boolean goLeft = delta < 0;
+            int nearFrom = goLeft ? from : mid + 1;
+            int nearTo = goLeft ? mid : to;
+            int farFrom = goLeft ? mid + 1 : from;
+            int farTo = goLeft ? to : mid;
+
+            search(nearFrom, nearTo, 1 - axis, lat, lng, k, maxKm, filter, best);
+
+            // Lower bound on the distance to anything across the split plane
+            double planeKm;
+            if (axis == 0) {
+                planeKm = Math.abs(delta) * KM_PER_DEGREE;
+            } else {
+                // The far side runs out to the antimeridian, so it can also be reached the other way round
+                double wrapGap = goLeft ? 180.0 + lng : 180.0 - lng;
+                double halfLng = Math.toRadians(Math.min(180.0, Math.min(Math.abs(delta), wrapGap))) / 2;
+                double cosFactor = Math.sqrt(Math.cos(Math.toRadians(lat)) * cosMaxLat);
+                planeKm = 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, cosFactor * Math.sin(halfLng)));
+            }
+            double bound = best.size() < k ? maxKm : Math.min(maxKm, best.peek().distanceKm());
+            if (planeKm <= bound) {
+                search(farFrom, farTo, 1 - axis, lat, lng, k, maxKm, filter, best);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.moviebooking.service;
+
+import com.moviebooking.entity.supabase.Show;
+import com.moviebooking.repository.supabase.ShowRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Upcoming Show Index
+ * Serves "shows starting in the next few hours" from memory. Active shows starting inside a
+ * rolling horizon are held per city in arrays sorted by start time, so a window query is two
+ * binary searches plus a copy of the matching slice. Windows past the horizon, or past dates,
+ * go to the (theater_city, starts_at) index instead.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UpcomingShowIndex {
+
+    private final ShowRepository showRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shows.upcoming-horizon-hours:8}")
+    private int horizonHours;
+
+    private volatile Snapshot snapshot = new Snapshot(LocalDateTime.MIN, LocalDateTime.MIN, Map.of());
+
+    public enum TimeOfDay {
+        MORNING(LocalTime.of(6, 0), LocalTime.of(12, 0)),
+        AFTERNOON(LocalTime.of(12, 0), LocalTime.of(17, 0)),
+        EVENING(LocalTime.of(17, 0), LocalTime.of(21, 0)),
+        NIGHT(LocalTime.of(21, 0), LocalTime.MAX);
+
+        public final LocalTime from;
+        public final LocalTime to;
+
+        TimeOfDay(LocalTime from, LocalTime to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        public static TimeOfDay of(LocalTime time) {
+            for (TimeOfDay t : values()) {
+                if (!time.isBefore(t.from) && time.isBefore(t.to)) {
+                    return t;
+                }
+            }
+            return NIGHT;  // 00:00-06:00 late shows
+        }
+    }
+
+    private record CityShows(LocalDateTime[] starts, Show[] shows) {}
+
+    private record Snapshot(LocalDateTime from, LocalDateTime to, Map<String, CityShows> byCity) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            Integer updated = transactionTemplate.execute(status -> showRepository.backfillStartsAt());
+            if (updated != null && updated > 0) {
+                log.info("Backfilled starts_at for {} shows", updated);
+            }
+        } catch (Exception e) {
+            log.error("starts_at backfill failed: {}", e.getMessage());
+        }
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${shows.upcoming-refresh-ms:60000}", initialDelayString = "${shows.upcoming-refresh-ms:60000}")
+    public void refresh() {
+        try {
+            LocalDateTime from = LocalDateTime.now().withSecond(0).withNano(0);
+            LocalDateTime to = from.plusHours(horizonHours);
+
+            Map<String, List<Show>> grouped = new HashMap<>();
+            for (Show show : showRepository.findByStartsAtBetween(from, to)) {
+                if (show.getTheaterCity() != null) {
+                    grouped.computeIfAbsent(cityKey(show.getTheaterCity()), k -> new ArrayList<>()).add(show);
+                }
+            }
+
+            Map<String, CityShows> byCity = new HashMap<>();
+            grouped.forEach((city, shows) -> {
+                // Query results are already ordered by starts_at
+                LocalDateTime[] starts = shows.stream().map(Show::getStartsAt).toArray(LocalDateTime[]::new);
+                byCity.put(city, new CityShows(starts, shows.toArray(new Show[0])));
+            });
+            snapshot = new Snapshot(from, to, byCity);
+        } catch (Exception e) {
+            log.error("Failed to refresh upcoming show index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Active shows in a city starting within [from, to), earliest first. The city is matched
+     * case-insensitively on both the in-memory and the database path; an empty or inverted
+     * window matches nothing.
+     */
+    public List<Show> findStartingBetween(String city, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return List.of();
+        }
+        Snapshot s = snapshot;
+        boolean covered = !from.isBefore(s.from()) && !to.isAfter(s.to());
+        if (!covered) {
+            return showRepository.findByCityAndStartsAtBetween(city, from, to);
+        }
+
+        CityShows cityShows = s.byCity().get(cityKey(city));
+        if (cityShows == null) {
+            return List.of();
+        }
+        int lo = lowerBound(cityShows.starts(), from);
+        int hi = lowerBound(cityShows.starts(), to);
+        return Arrays.asList(Arrays.copyOfRange(cityShows.shows(), lo, hi));
+    }
+
+    /**
+     * Shows in the next few hours; served from memory while hours fits inside the horizon
+     */
+    public List<Show> findStartingWithin(String city, int hours) {
+        // Starting from now (not the snapshot time) drops shows that began since the last refresh
+        LocalDateTime now = LocalDateTime.now();
+        return findStartingBetween(city, now, now.plusHours(hours));
+    }
+
+    /**
+     * Shows on a date whose start time falls in a part of the day, using the same slots as
+     * TimeOfDay.of: NIGHT is the date's 00:00-06:00 and 21:00-24:00
+     */
+    public List<Show> findByTimeOfDay(String city, LocalDate date, TimeOfDay timeOfDay) {
+        if (timeOfDay != TimeOfDay.NIGHT) {
+            return findStartingBetween(city, date.atTime(timeOfDay.from), date.atTime(timeOfDay.to));
+        }
+        List<Show> shows = new ArrayList<>(findStartingBetween(
+                city, date.atStartOfDay(), date.atTime(TimeOfDay.MORNING.from)));
+        shows.addAll(findStartingBetween(city, date.atTime(timeOfDay.from), date.plusDays(1).atStartOfDay()));
+        return shows;
+    }
+
+    private static String cityKey(String city) {
+        return city.toLowerCase(Locale.ROOT);
+    }
+
+    private static int lowerBound(LocalDateTime[] starts, LocalDateTime key) {
+        int lo = 0;
+        int hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid].isBefore(key)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
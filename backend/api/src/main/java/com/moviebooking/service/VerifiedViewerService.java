@@ -0,0 +1,125 @@
+package com.moviebooking.service;
+
+import com.moviebooking.event.BookingCompletedEvent;
+import com.moviebooking.repository.supabase.BookingRepository;
+import com.moviebooking.util.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Verified Viewer Service
+ * Knows which users have a completed booking for which movie, so posting a review can set
+ * isVerifiedBooking without querying bookings. Per-movie user sets are the source of truth;
+ * a Bloom filter in front answers most "not a viewer" lookups without touching them.
+ * Rebuilt from bookings at startup and nightly, and kept current from completed bookings.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VerifiedViewerService {
+
+    private static final long MIN_EXPECTED_PAIRS = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final BookingRepository bookingRepository;
+
+    private volatile ViewerIndex index = new ViewerIndex(new BloomFilter(MIN_EXPECTED_PAIRS, FALSE_POSITIVE_RATE),
+            new ConcurrentHashMap<>());
+    private volatile boolean loaded = false;
+
+    // Bookings completed while a rebuild is reading, replayed into the new index
+    private volatile boolean rebuilding = false;
+    private final Queue<Viewer> duringRebuild = new ConcurrentLinkedQueue<>();
+
+    private record Viewer(String movieId, Long userId) {}
+
+    private record ViewerIndex(BloomFilter bloom, Map<String, Set<Long>> viewers) {
+
+        void add(String movieId, Long userId) {
+            viewers.computeIfAbsent(movieId, k -> ConcurrentHashMap.newKeySet()).add(userId);
+            bloom.put(key(movieId, userId));
+        }
+
+        boolean contains(String movieId, Long userId) {
+            if (!bloom.mightContain(key(movieId, userId))) {
+                return false;
+            }
+            Set<Long> users = viewers.get(movieId);
+            return users != null && users.contains(userId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${reviews.viewer-rebuild-cron:0 15 3 * * *}")
+    public synchronized void rebuild() {
+        rebuilding = true;
+        try {
+            List<Object[]> pairs = bookingRepository.findCompletedViewerPairs();
+            ViewerIndex fresh = new ViewerIndex(
+                    new BloomFilter(Math.max(MIN_EXPECTED_PAIRS, pairs.size() * 2L), FALSE_POSITIVE_RATE),
+                    new ConcurrentHashMap<>());
+            for (Object[] row : pairs) {
+                if (row[0] != null && row[1] != null) {
+                    fresh.add((String) row[0], (Long) row[1]);
+                }
+            }
+            index = fresh;
+            loaded = true;
+            log.info("Verified viewer index built with {} movie/user pairs", pairs.size());
+        } catch (Exception e) {
+            log.error("Failed to build verified viewer index: {}", e.getMessage());
+        } finally {
+            rebuilding = false;
+            replayDuringRebuild();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBookingCompleted(BookingCompletedEvent event) {
+        if (event.movieId() == null || event.userId() == null) {
+            return;
+        }
+        if (rebuilding) {
+            duringRebuild.add(new Viewer(event.movieId(), event.userId()));
+        }
+        index.add(event.movieId(), event.userId());
+    }
+
+    /**
+     * Whether the user has a completed booking for the movie
+     */
+    public boolean isVerifiedViewer(String movieId, Long userId) {
+        if (movieId == null || userId == null) {
+            return false;
+        }
+        if (!loaded) {
+            return bookingRepository.findCompletedBookingsByUserId(userId).stream()
+                    .anyMatch(b -> movieId.equals(b.getMovieId()));
+        }
+        return index.contains(movieId, userId);
+    }
+
+    private void replayDuringRebuild() {
+        Viewer viewer;
+        while ((viewer = duringRebuild.poll()) != null) {
+            index.add(viewer.movieId(), viewer.userId());
+        }
+    }
+
+    private static String key(String movieId, Long userId) {
+        return movieId + "|" + userId;
+    }
+}
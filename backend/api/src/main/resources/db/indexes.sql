@@ -0,0 +1,18 @@
+-- Expression indexes that @Table(indexes = ...) cannot declare.
+-- Runs after Hibernate's schema update on every start, so each statement must be idempotent.
+
+-- Rating keyset pagination orders on COALESCE(rating average, 0), id (MovieRepository.findPageByRatingAfter)
+CREATE INDEX IF NOT EXISTS idx_movies_rating_avg_id
+    ON movies ((COALESCE((rating->>'average')::double precision, 0)), id);
+
+-- City grids match the city case-insensitively (ShowRepository.findByCityAndDate)
+CREATE INDEX IF NOT EXISTS idx_shows_city_lower_date
+    ON shows (LOWER(theater_city), show_date);
+
+-- Theaters for a movie filter the city case-insensitively (TheaterRepository.findTheatersShowingMovie)
+CREATE INDEX IF NOT EXISTS idx_theaters_city_lower
+    ON theaters (LOWER(city));
+
+-- Time-window search past the in-memory horizon (ShowRepository.findByCityAndStartsAtBetween)
+CREATE INDEX IF NOT EXISTS idx_shows_city_lower_starts_at
+    ON shows (LOWER(theater_city), starts_at);
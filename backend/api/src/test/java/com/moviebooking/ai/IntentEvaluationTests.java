@@ -0,0 +1,168 @@
+package com.moviebooking.ai;
+
+import com.moviebooking.entity.supabase.ConversationLog;
+import com.moviebooking.entity.supabase.ConversationMessage;
+import com.moviebooking.repository.supabase.ConversationMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.*;
+
+/**
+ * Offline check of the intent fast path against recorded conversations in the configured database.
+ * Opt-in, as it needs the real datasource:
+ *
+ *   mvn test -Dtest=IntentEvaluationTests -Dchat.intent-eval.enabled=true
+ *
+ * Every recorded user message is classified (no tools, no model) and the report logs how many
+ * turns the fast path would have taken, per intent, and how often the reply the model actually
+ * gave looks like the same kind of answer. Turns answered by the fast path or a fallback are
+ * left out, since comparing the router with its own answers says nothing. Samples of confident
+ * matches and near misses are logged for review before tuning the patterns or the threshold.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "chat.intent-eval.enabled", matches = "true")
+@Slf4j
+class IntentEvaluationTests {
+
+    private static final int PAGE_SIZE = 500;
+    private static final double NEAR_MISS_CONFIDENCE = 0.5;
+
+    @Autowired
+    private ConversationMessageRepository conversationMessageRepository;
+
+    @Autowired
+    private IntentRouter intentRouter;
+
+    @Value("${chat.intent-eval.max-messages:20000}")
+    private int maxMessages;
+
+    @Value("${chat.intent-eval.samples:10}")
+    private int maxSamples;
+
+    private static final class IntentStats {
+        long confident;
+        long agreeing;
+        long nearMisses;
+        final List<String> samples = new ArrayList<>();
+        final List<String> nearMissSamples = new ArrayList<>();
+    }
+
+    @Test
+    void evaluateAgainstRecordedConversations() {
+        Map<IntentRouter.Intent, IntentStats> stats = new EnumMap<>(IntentRouter.Intent.class);
+        for (IntentRouter.Intent intent : IntentRouter.Intent.values()) {
+            stats.put(intent, new IntentStats());
+        }
+        long userMessages = 0;
+        long confident = 0;
+        long excluded = 0;
+
+        ConversationMessage pendingUser = null;
+        IntentRouter.Match pendingMatch = null;
+        for (int page = 0; page * PAGE_SIZE < maxMessages; page++) {
+            List<ConversationMessage> batch = conversationMessageRepository.findAllInConversationOrder(
+                    PageRequest.of(page, PAGE_SIZE));
+            for (ConversationMessage m : batch) {
+                // Pair each user message with the reply recorded right after it in the same session
+                if (pendingUser != null) {
+                    boolean isReply = m.getRole() == ConversationLog.MessageRole.ASSISTANT
+                            && m.getSessionId().equals(pendingUser.getSessionId());
+                    if (isReply && !answeredByModel(m)) {
+                        excluded++;
+                    } else {
+                        userMessages++;
+                        if (intentRouter.isConfident(pendingMatch)) {
+                            confident++;
+                        }
+                        tally(stats, pendingUser, pendingMatch, isReply ? m.getContent() : null);
+                    }
+                    pendingUser = null;
+                }
+                if (m.getRole() == ConversationLog.MessageRole.USER) {
+                    pendingUser = m;
+                    pendingMatch = intentRouter.classify(m.getContent());
+                }
+            }
+            if (batch.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+        if (pendingUser != null) {
+            userMessages++;
+            if (intentRouter.isConfident(pendingMatch)) {
+                confident++;
+            }
+            tally(stats, pendingUser, pendingMatch, null);
+        }
+
+        log.info("Intent fast path evaluation: {} user messages, {} would take the fast path ({}%), "
+                        + "{} left out as answered without the model",
+                userMessages, confident, userMessages == 0 ? 0 : Math.round(100.0 * confident / userMessages), excluded);
+        stats.forEach((intent, s) -> {
+            log.info("  {}: {} confident, {} with a matching recorded reply, {} near misses",
+                    intent, s.confident, s.agreeing, s.nearMisses);
+            s.samples.forEach(sample -> log.info("    match: {}", sample));
+            s.nearMissSamples.forEach(sample -> log.info("    near miss: {}", sample));
+        });
+    }
+
+    private void tally(Map<IntentRouter.Intent, IntentStats> stats, ConversationMessage user,
+                       IntentRouter.Match match, String recordedReply) {
+        if (match == null) {
+            return;
+        }
+        IntentStats s = stats.get(match.intent());
+        if (intentRouter.isConfident(match)) {
+            s.confident++;
+            boolean agrees = recordedReply != null && looksLike(match.intent(), recordedReply.toLowerCase(Locale.ROOT));
+            if (agrees) {
+                s.agreeing++;
+            }
+            if (s.samples.size() < maxSamples) {
+                s.samples.add((agrees ? "" : "[reply differs] ") + abbreviate(user.getContent()));
+            }
+        } else if (match.confidence() >= NEAR_MISS_CONFIDENCE) {
+            s.nearMisses++;
+            if (s.nearMissSamples.size() < maxSamples) {
+                s.nearMissSamples.add(String.format(Locale.ROOT, "%.2f %s", match.confidence(), abbreviate(user.getContent())));
+            }
+        }
+    }
+
+    // Rows from before the source was recorded have none; they are counted as model replies
+    private static boolean answeredByModel(ConversationMessage reply) {
+        return reply.getAnsweredBy() == null || reply.getAnsweredBy() == ConversationMessage.AnswerSource.MODEL;
+    }
+
+    // Whether the model's reply is the kind of answer the template would have given
+    private static boolean looksLike(IntentRouter.Intent intent, String reply) {
+        return switch (intent) {
+            case EXPLAIN_TIERS -> countOf(reply, "classic", "prime", "premium", "vip") >= 2;
+            case SEAT_PRICING -> reply.contains("₹") || reply.contains("price");
+            case SEAT_AVAILABILITY -> reply.contains("available") || reply.contains("sold out") || reply.contains("seats left");
+            case NOW_SHOWING -> reply.contains("movie") || reply.contains("showing") || reply.contains("playing");
+            case RECOMMEND_FORMAT -> countOf(reply, "imax", "4dx", "3d", "dolby") >= 1;
+        };
+    }
+
+    private static int countOf(String text, String... words) {
+        int n = 0;
+        for (String w : words) {
+            if (text.contains(w)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private static String abbreviate(String text) {
+        String oneLine = text.replaceAll("\\s+", " ").trim();
+        return oneLine.length() <= 120 ? oneLine : oneLine.substring(0, 117) + "...";
+    }
+}
@@ -0,0 +1,192 @@
+package com.moviebooking.ai;
+
+import com.moviebooking.ai.IntentRouter.Intent;
+import com.moviebooking.ai.IntentRouter.Match;
+import com.moviebooking.ai.tools.MovieConciergeTools;
+import com.moviebooking.entity.supabase.Movie;
+import com.moviebooking.service.MovieRankingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class IntentRouterTest {
+
+    private static final String SHOW_ID = "123e4567-e89b-12d3-a456-426614174000";
+
+    private MovieConciergeTools tools;
+    private MovieRankingService movieRankingService;
+    private IntentRouter router;
+
+    @BeforeEach
+    void setUp() {
+        tools = mock(MovieConciergeTools.class);
+        movieRankingService = mock(MovieRankingService.class);
+        router = new IntentRouter(tools, movieRankingService);
+        ReflectionTestUtils.setField(router, "enabled", true);
+        ReflectionTestUtils.setField(router, "minConfidence", 0.8);
+    }
+
+    @Test
+    void noIntentForEmptyOrUnrelatedMessages() {
+        assertThat(router.classify(null)).isNull();
+        assertThat(router.classify("   ")).isNull();
+        assertThat(router.classify("Hello there!")).isNull();
+    }
+
+    @Test
+    void classifiesSeatTierQuestions() {
+        assertMatch(router.classify("Explain the seat tiers"), Intent.EXPLAIN_TIERS, 0.95);
+        assertMatch(router.classify("What's the difference between Prime and VIP?"), Intent.EXPLAIN_TIERS, 0.9);
+    }
+
+    @Test
+    void classifiesShowQuestionsAndCarriesTheShowId() {
+        Match pricing = router.classify("How much are tickets for show " + SHOW_ID + "?");
+        assertMatch(pricing, Intent.SEAT_PRICING, 0.95);
+        assertThat(pricing.slots()).containsEntry("showId", SHOW_ID);
+
+        Match availability = router.classify("Are seats available for " + SHOW_ID.toUpperCase() + "?");
+        assertMatch(availability, Intent.SEAT_AVAILABILITY, 0.95);
+        assertThat(availability.slots()).containsEntry("showId", SHOW_ID);
+    }
+
+    @Test
+    void showQuestionsNeedAShowId() {
+        assertThat(router.classify("How much are tickets?")).isNull();
+    }
+
+    @Test
+    void classifiesListingsWithAnOptionalGenre() {
+        Match all = router.classify("What's showing?");
+        assertMatch(all, Intent.NOW_SHOWING, 0.9);
+        assertThat(all.slots()).isEmpty();
+
+        Match horror = router.classify("Show me horror movies");
+        assertMatch(horror, Intent.NOW_SHOWING, 0.9);
+        assertThat(horror.slots()).containsEntry("genre", "Horror");
+
+        assertThat(router.classify("Any sci-fi films?").slots()).containsEntry("genre", "Sci-Fi");
+    }
+
+    @Test
+    void classifiesFormatRecommendationsForAGenre() {
+        Match match = router.classify("Which format is best for horror?");
+        assertMatch(match, Intent.RECOMMEND_FORMAT, 0.9);
+        assertThat(match.slots()).isEqualTo(Map.of("genre", "Horror"));
+
+        assertThat(router.classify("Which format is best?")).isNull();
+    }
+
+    @Test
+    void penalizesWhatTheTemplatesCannotHonour() {
+        // Place, date, listing filter and follow-up each cost 0.4
+        assertMatch(router.classify("What movies are showing in Mumbai?"), Intent.NOW_SHOWING, 0.5);
+        assertMatch(router.classify("What's showing tomorrow?"), Intent.NOW_SHOWING, 0.5);
+        assertMatch(router.classify("Which IMAX movies are playing?"), Intent.NOW_SHOWING, 0.5);
+        assertMatch(router.classify("Compare prime and vip for that show"), Intent.EXPLAIN_TIERS, 0.5);
+    }
+
+    @Test
+    void penalizesLongAndMultiPartMessages() {
+        assertMatch(router.classify("Explain the seat tiers, " + "please ".repeat(20)), Intent.EXPLAIN_TIERS, 0.65);
+        assertMatch(router.classify("How much are seats and are any available for " + SHOW_ID),
+                Intent.SEAT_PRICING, 0.475);
+    }
+
+    @Test
+    void confidenceThresholdComesFromConfiguration() {
+        assertThat(router.isConfident(router.classify("Explain the seat tiers"))).isTrue();
+        assertThat(router.isConfident(router.classify("What's showing tomorrow?"))).isFalse();
+        assertThat(router.isConfident(null)).isFalse();
+    }
+
+    @Test
+    void answersConfidentMatchesFromTheTools() {
+        when(tools.explainSeatTiers()).thenReturn(request -> "Classic, Prime, Premium and VIP.\n");
+
+        assertThat(router.answer("Explain the seat tiers"))
+                .hasValueSatisfying(answer -> assertThat(answer)
+                        .startsWith("Classic, Prime, Premium and VIP.")
+                        .contains("specific show"));
+    }
+
+    @Test
+    void todayIsWhatTheListingShows() {
+        assertMatch(router.classify("What's showing today?"), Intent.NOW_SHOWING, 0.9);
+        assertMatch(router.classify("Any movies tonight?"), Intent.NOW_SHOWING, 0.9);
+    }
+
+    @Test
+    void listsReleasedMoviesFromTheRanking() {
+        when(movieRankingService.nowShowing(8)).thenReturn(List.of(movie("Dune", "Sci-Fi")));
+
+        assertThat(router.answer("What's showing today?"))
+                .hasValueSatisfying(answer -> assertThat(answer)
+                        .startsWith("🎬 Here's what we're showing")
+                        .contains("**Dune**", "IMAX 2D", "8.4"));
+        verifyNoInteractions(tools);
+    }
+
+    @Test
+    void filtersTheListingByGenre() {
+        when(movieRankingService.nowShowing(Integer.MAX_VALUE))
+                .thenReturn(List.of(movie("Dune", "Sci-Fi"), movie("Nun", "Horror"), movie("Alien", "Horror", "Sci-Fi")));
+
+        assertThat(router.answer("Show me horror movies"))
+                .hasValueSatisfying(answer -> assertThat(answer)
+                        .contains("Horror movies", "**Nun**", "**Alien**")
+                        .doesNotContain("**Dune**"));
+    }
+
+    @Test
+    void fallbackAcceptsWeakerMatches() {
+        when(movieRankingService.nowShowing(8)).thenReturn(List.of(movie("Dune", "Sci-Fi")));
+
+        assertThat(router.answer("What's showing tomorrow?")).isEmpty();
+        assertThat(router.fallbackAnswer("What's showing tomorrow?"))
+                .hasValueSatisfying(answer -> assertThat(answer).contains("**Dune**"));
+    }
+
+    @Test
+    void failingToolLeavesTheQuestionToTheModel() {
+        when(tools.getSeatPricing()).thenReturn(request -> {
+            throw new RuntimeException("Show not found");
+        });
+
+        assertThat(router.answer("How much are tickets for " + SHOW_ID)).isEmpty();
+    }
+
+    @Test
+    void disabledSwitchTurnsOffAnswersAndFallbacks() {
+        ReflectionTestUtils.setField(router, "enabled", false);
+
+        assertThat(router.answer("Explain the seat tiers")).isEmpty();
+        assertThat(router.fallbackAnswer("Explain the seat tiers")).isEmpty();
+        verifyNoInteractions(tools, movieRankingService);
+    }
+
+    private static Movie movie(String title, String... genres) {
+        return Movie.builder()
+                .id(title.toLowerCase())
+                .title(title)
+                .genres(List.of(genres))
+                .rating(Movie.Rating.builder().average(8.4).build())
+                .formats(List.of(Movie.MovieFormat.IMAX_2D))
+                .build();
+    }
+
+    private static void assertMatch(Match match, Intent intent, double confidence) {
+        assertThat(match).isNotNull();
+        assertThat(match.intent()).isEqualTo(intent);
+        assertThat(match.confidence()).isCloseTo(confidence, within(1e-9));
+    }
+}
@@ -0,0 +1,268 @@
+package com.moviebooking.ai;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Limiter, retry and breaker behaviour of LlmGateway, with the model replaced by plain suppliers
+ */
+class LlmGatewayTest {
+
+    private LlmGateway gateway;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        gateway = new LlmGateway();
+        ReflectionTestUtils.setField(gateway, "initialLimit", 4);
+        ReflectionTestUtils.setField(gateway, "minLimit", 1);
+        ReflectionTestUtils.setField(gateway, "maxLimit", 32);
+        ReflectionTestUtils.setField(gateway, "queueCapacity", 0);
+        ReflectionTestUtils.setField(gateway, "queueTimeoutMs", 100L);
+        ReflectionTestUtils.setField(gateway, "callTimeoutMs", 5_000L);
+        ReflectionTestUtils.setField(gateway, "maxAttempts", 1);
+        ReflectionTestUtils.setField(gateway, "backoffBaseMs", 1L);
+        ReflectionTestUtils.setField(gateway, "backoffMaxMs", 5L);
+        ReflectionTestUtils.setField(gateway, "breakerFailureThreshold", 2);
+        ReflectionTestUtils.setField(gateway, "breakerOpenMs", 60_000L);
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        gateway.stop();
+    }
+
+    @Test
+    void rejectsCallsBeyondTheLimitWhenTheQueueIsFull() throws Exception {
+        ReflectionTestUtils.setField(gateway, "initialLimit", 2);
+        CountDownLatch hold = new CountDownLatch(1);
+        Future<String> first = callers.submit(() -> gateway.call(() -> await(hold)));
+        Future<String> second = callers.submit(() -> gateway.call(() -> await(hold)));
+        waitFor(() -> (int) gateway.metrics().get("inFlight") == 2);
+
+        assertThatThrownBy(() -> gateway.call(() -> "third"))
+                .isInstanceOf(LlmGateway.LlmUnavailableException.class)
+                .hasMessageContaining("queue full");
+
+        hold.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(gateway.metrics()).containsEntry("inFlight", 0).containsEntry("rejected", 1L);
+    }
+
+    @Test
+    void queuedCallRunsOnceAPermitFrees() throws Exception {
+        ReflectionTestUtils.setField(gateway, "initialLimit", 1);
+        ReflectionTestUtils.setField(gateway, "queueCapacity", 1);
+        ReflectionTestUtils.setField(gateway, "queueTimeoutMs", 5_000L);
+        CountDownLatch hold = new CountDownLatch(1);
+        Future<String> first = callers.submit(() -> gateway.call(() -> await(hold)));
+        waitFor(() -> (int) gateway.metrics().get("inFlight") == 1);
+        Future<String> second = callers.submit(() -> gateway.call(() -> "second"));
+        waitFor(() -> (int) gateway.metrics().get("waiting") == 1);
+
+        hold.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+    }
+
+    @Test
+    void overloadHalvesTheLimitAndSuccessGrowsItBack() {
+        assertThatThrownBy(() -> gateway.call(() -> {
+            throw new RuntimeException("429 - quota exceeded");
+        })).hasMessageContaining("429");
+        assertThat(gateway.metrics()).containsEntry("limit", 2.0).containsEntry("throttled", 1L);
+
+        // Additive increase: 2 + 1/2 = 2.5, then 2.5 + 1/2.5 = 2.9
+        gateway.call(() -> "ok");
+        gateway.call(() -> "ok");
+        assertThat(gateway.metrics()).containsEntry("limit", 2.9);
+    }
+
+    @Test
+    void retriesTransientFailuresWithoutLeakingPermits() {
+        ReflectionTestUtils.setField(gateway, "maxAttempts", 3);
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        String result = gateway.call(() -> {
+            maxInFlight.accumulateAndGet((int) gateway.metrics().get("inFlight"), Math::max);
+            if (attempts.incrementAndGet() < 3) {
+                throw new RuntimeException("503 - service unavailable");
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts).hasValue(3);
+        assertThat(maxInFlight).hasValue(1);
+        assertThat(gateway.metrics())
+                .containsEntry("retried", 2L)
+                .containsEntry("inFlight", 0)
+                .containsEntry("breaker", "CLOSED");
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        ReflectionTestUtils.setField(gateway, "maxAttempts", 3);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> gateway.call(() -> {
+            attempts.incrementAndGet();
+            throw new RuntimeException("400 - bad request");
+        })).hasMessageContaining("400");
+
+        assertThat(attempts).hasValue(1);
+        assertThat(gateway.metrics()).containsEntry("retried", 0L).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void opensAfterRepeatedProviderFailuresAndShortCircuits() {
+        failWith("503 - service unavailable");
+        failWith("503 - service unavailable");
+        assertThat(gateway.metrics()).containsEntry("breaker", "OPEN");
+
+        AtomicInteger calls = new AtomicInteger();
+        assertThatThrownBy(() -> gateway.call(calls::incrementAndGet))
+                .isInstanceOf(LlmGateway.LlmUnavailableException.class);
+        assertThat(calls).hasValue(0);
+        assertThat(gateway.metrics()).containsEntry("shortCircuited", 1L);
+    }
+
+    @Test
+    void nonProviderFailuresDoNotOpenTheCircuit() {
+        for (int i = 0; i < 5; i++) {
+            failWith("Movie not found");
+            failWith("400 - bad request");
+        }
+
+        assertThat(gateway.metrics()).containsEntry("breaker", "CLOSED").containsEntry("inFlight", 0);
+        assertThat(gateway.call(() -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void halfOpenProbeClosesOnSuccessAndReopensOnProviderFailure() {
+        ReflectionTestUtils.setField(gateway, "breakerOpenMs", 0L);
+        failWith("503 - service unavailable");
+        failWith("503 - service unavailable");
+        assertThat(gateway.metrics()).containsEntry("breaker", "OPEN");
+
+        failWith("503 - service unavailable");
+        assertThat(gateway.metrics()).containsEntry("breaker", "OPEN");
+
+        assertThat(gateway.call(() -> "ok")).isEqualTo("ok");
+        assertThat(gateway.metrics()).containsEntry("breaker", "CLOSED");
+    }
+
+    @Test
+    void halfOpenProbeClosesWhenTheProviderAnswersWithAnError() {
+        ReflectionTestUtils.setField(gateway, "breakerOpenMs", 0L);
+        failWith("503 - service unavailable");
+        failWith("503 - service unavailable");
+
+        failWith("Movie not found");
+
+        assertThat(gateway.metrics()).containsEntry("breaker", "CLOSED").containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void streamRetriesBeforeTheFirstChunkWithoutLeakingPermits() {
+        ReflectionTestUtils.setField(gateway, "maxAttempts", 3);
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        List<String> chunks = gateway.stream(() -> {
+            maxInFlight.accumulateAndGet((int) gateway.metrics().get("inFlight"), Math::max);
+            return attempts.incrementAndGet() < 3
+                    ? Flux.<String>error(new RuntimeException("503 - service unavailable"))
+                    : Flux.just("a", "b");
+        }).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(chunks).containsExactly("a", "b");
+        assertThat(maxInFlight).hasValue(1);
+        assertThat(gateway.metrics())
+                .containsEntry("retried", 2L)
+                .containsEntry("inFlight", 0)
+                .containsEntry("succeeded", 1L);
+    }
+
+    @Test
+    void streamPassesOnFailuresAfterTheFirstChunk() {
+        ReflectionTestUtils.setField(gateway, "maxAttempts", 3);
+        AtomicInteger attempts = new AtomicInteger();
+
+        Flux<String> stream = gateway.stream(() -> {
+            attempts.incrementAndGet();
+            return Flux.concat(Flux.just("partial"), Flux.error(new RuntimeException("503 - service unavailable")));
+        });
+
+        assertThatThrownBy(() -> stream.collectList().block(Duration.ofSeconds(5))).hasMessageContaining("503");
+        assertThat(attempts).hasValue(1);
+        assertThat(gateway.metrics()).containsEntry("inFlight", 0).containsEntry("failed", 1L);
+    }
+
+    @Test
+    void streamCountsOnlyProviderFaultsTowardsTheBreaker() {
+        for (int i = 0; i < 3; i++) {
+            Flux<String> stream = gateway.stream(() -> Flux.error(new RuntimeException("Movie not found")));
+            assertThatThrownBy(() -> stream.blockLast(Duration.ofSeconds(5))).hasMessage("Movie not found");
+        }
+        assertThat(gateway.metrics()).containsEntry("breaker", "CLOSED");
+
+        for (int i = 0; i < 2; i++) {
+            Flux<String> stream = gateway.stream(() -> Flux.error(new RuntimeException("503 - service unavailable")));
+            assertThatThrownBy(() -> stream.blockLast(Duration.ofSeconds(5))).hasMessageContaining("503");
+        }
+        assertThat(gateway.metrics()).containsEntry("breaker", "OPEN").containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void cancelledStreamReturnsItsPermit() {
+        Flux<String> stream = gateway.stream(() -> Flux.<String>never());
+
+        stream.subscribe().dispose();
+
+        assertThat(gateway.metrics()).containsEntry("inFlight", 0).containsEntry("breaker", "CLOSED");
+    }
+
+    private void failWith(String message) {
+        assertThatThrownBy(() -> gateway.call(() -> {
+            throw new RuntimeException(message);
+        })).hasMessage(message);
+    }
+
+    private static String await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.moviebooking.ai;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenEstimatorTest {
+
+    @Test
+    void emptyTextCostsNothing() {
+        assertThat(TokenEstimator.estimate(null)).isZero();
+        assertThat(TokenEstimator.estimate("")).isZero();
+        assertThat(TokenEstimator.estimate("   \n\t")).isZero();
+    }
+
+    @Test
+    void asciiWordsCostOneTokenPerFourCharacters() {
+        assertThat(TokenEstimator.estimate("a")).isEqualTo(1);
+        assertThat(TokenEstimator.estimate("imax")).isEqualTo(1);
+        assertThat(TokenEstimator.estimate("hello")).isEqualTo(2);
+        assertThat(TokenEstimator.estimate("showtimes2024")).isEqualTo(4);
+    }
+
+    @Test
+    void whitespaceIsFoldedIntoTheNextWord() {
+        assertThat(TokenEstimator.estimate("hi there")).isEqualTo(3);
+        assertThat(TokenEstimator.estimate("hi    there")).isEqualTo(3);
+        assertThat(TokenEstimator.estimate("  hi\nthere  ")).isEqualTo(3);
+    }
+
+    @Test
+    void punctuationEmojiAndNonLatinCostOneEach() {
+        assertThat(TokenEstimator.estimate("Hello, world!")).isEqualTo(6);
+        assertThat(TokenEstimator.estimate("🎬")).isEqualTo(1);
+        assertThat(TokenEstimator.estimate("🎬⭐")).isEqualTo(2);
+        assertThat(TokenEstimator.estimate("日本語")).isEqualTo(3);
+        assertThat(TokenEstimator.estimate("café")).isEqualTo(2);
+    }
+
+    @Test
+    void messageAddsFormatOverhead() {
+        assertThat(TokenEstimator.estimateMessage("")).isEqualTo(TokenEstimator.MESSAGE_OVERHEAD);
+        assertThat(TokenEstimator.estimateMessage("hello"))
+                .isEqualTo(2 + TokenEstimator.MESSAGE_OVERHEAD);
+    }
+}
@@ -0,0 +1,85 @@
+package com.moviebooking.dto.response;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorPageTest {
+
+    @Test
+    void roundTripsKeyParts() {
+        String cursor = CursorPage.encodeCursor("2025-03-01T18:30", "show-42");
+
+        assertThat(CursorPage.decodeCursor(cursor, 2)).containsExactly("2025-03-01T18:30", "show-42");
+    }
+
+    @Test
+    void keepsEmptyPartsAndNonAsciiText() {
+        String cursor = CursorPage.encodeCursor("", "Amélie ⭐");
+
+        assertThat(CursorPage.decodeCursor(cursor, 2)).containsExactly("", "Amélie ⭐");
+    }
+
+    @Test
+    void keepsNullPartsApartFromTheTextNull() {
+        assertThat(CursorPage.decodeCursor(CursorPage.encodeCursor(null, "movie-1"), 2))
+                .containsExactly(null, "movie-1");
+        assertThat(CursorPage.decodeCursor(CursorPage.encodeCursor("null", "movie-1"), 2))
+                .containsExactly("null", "movie-1");
+    }
+
+    @Test
+    void keepsSeparatorsAndMarkersInsideParts() {
+        String cursor = CursorPage.encodeCursor("Part 1\nPart 2", "a.b~c");
+
+        assertThat(CursorPage.decodeCursor(cursor, 2)).containsExactly("Part 1\nPart 2", "a.b~c");
+    }
+
+    @Test
+    void cursorIsUrlSafeWithoutPadding() {
+        String cursor = CursorPage.encodeCursor("4.5", "??>>~~", "a");
+
+        assertThat(cursor).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void rejectsCursorsThatDoNotDecode() {
+        assertInvalid(() -> CursorPage.decodeCursor("not base64!", 2));
+    }
+
+    @Test
+    void rejectsCursorsWithTheWrongNumberOfParts() {
+        String cursor = CursorPage.encodeCursor("4.5", "movie-1");
+
+        assertInvalid(() -> CursorPage.decodeCursor(cursor, 3));
+        assertInvalid(() -> CursorPage.decodeCursor(
+                Base64.getUrlEncoder().encodeToString("single".getBytes(StandardCharsets.UTF_8)), 2));
+    }
+
+    @Test
+    void parsesKeyParts() {
+        assertThat(CursorPage.parseKey("4.5", Double::valueOf)).isEqualTo(4.5);
+        assertThat(CursorPage.parseKey("2025-03-01T18:30", LocalDateTime::parse))
+                .isEqualTo(LocalDateTime.of(2025, 3, 1, 18, 30));
+    }
+
+    @Test
+    void rejectsKeyPartsThatDoNotParse() {
+        assertInvalid(() -> CursorPage.parseKey("abc", Double::valueOf));
+        assertInvalid(() -> CursorPage.parseKey("yesterday", LocalDateTime::parse));
+        assertInvalid(() -> CursorPage.parseKey(null, Double::valueOf));
+    }
+
+    private static void assertInvalid(Runnable call) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+}
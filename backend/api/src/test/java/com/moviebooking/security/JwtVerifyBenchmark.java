@@ -0,0 +1,95 @@
+package com.moviebooking.security;
+
+import com.moviebooking.entity.supabase.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of JwtTokenProvider.verify against a full parse per request.
+ * "perRequestBaseline" is the path the filter used to take: the key and parser rebuilt on every
+ * call, and the token parsed twice (validateToken, then getEmailFromToken).
+ * "hot" replays one token (every request after the first is a cache hit), "workingSet" cycles
+ * through more distinct tokens than the cache holds in a skewed mix, the case where the old
+ * clear-all bound dropped the hit rate to zero.
+ *
+ * Run with:
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=JwtVerifyBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+    // Above the provider's capacity, so the bound is exercised
+    private static final int WORKING_SET = 12_000;
+    // A quarter of the tokens get most of the traffic, as with a core of active sessions
+    private static final int ACTIVE = WORKING_SET / 4;
+
+    private JwtTokenProvider provider;
+    private JwtParser parser;
+    private String hotToken;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        provider = new JwtTokenProvider(new TokenRevocationService(null, null));
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 3_600_000L);
+        provider.init();
+        parser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8))).build();
+
+        tokens = new String[WORKING_SET];
+        for (int i = 0; i < WORKING_SET; i++) {
+            tokens[i] = provider.generateToken(User.builder()
+                    .id((long) i)
+                    .email("user" + i + "@example.com")
+                    .fullName("User " + i)
+                    .build());
+        }
+        hotToken = tokens[0];
+    }
+
+    @Benchmark
+    public String perRequestBaseline() {
+        parseWithFreshParser(hotToken);
+        return parseWithFreshParser(hotToken).getSubject();
+    }
+
+    @Benchmark
+    public Claims parseEveryTime() {
+        return parser.parseSignedClaims(hotToken).getPayload();
+    }
+
+    @Benchmark
+    public Claims verifyHot() {
+        return provider.verify(hotToken);
+    }
+
+    @Benchmark
+    public Claims verifyWorkingSet() {
+        int i = next++;
+        // Four requests in five come from the active quarter
+        int index = i % 5 != 0 ? i % ACTIVE : ACTIVE + i % (WORKING_SET - ACTIVE);
+        return provider.verify(tokens[index]);
+    }
+
+    private static Claims parseWithFreshParser(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
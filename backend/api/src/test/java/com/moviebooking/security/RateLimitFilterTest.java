@@ -0,0 +1,152 @@
+package com.moviebooking.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private MockEnvironment environment;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        // Three chat requests, then effectively no refill within a test
+        environment = new MockEnvironment()
+                .withProperty("ratelimit.chat.capacity", "3")
+                .withProperty("ratelimit.chat.per-second", "0.001");
+        filter = newFilter();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void allowsTheBurstThenRejectsWithRetryAfter() throws Exception {
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(chat("10.0.0.1"), response, chain);
+
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(chain.getRequest()).isNotNull();
+            assertThat(response.getHeader("RateLimit-Limit")).isEqualTo("3");
+            assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo(String.valueOf(remaining));
+        }
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(chat("10.0.0.1"), rejected, chain);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(chain.getRequest()).isNull();
+        assertThat(rejected.getHeader("RateLimit-Remaining")).isEqualTo("0");
+        // One token every 1000 s
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1000");
+        assertThat(rejected.getContentAsString()).contains("\"retryAfterSeconds\":1000");
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() throws Exception {
+        environment.setProperty("ratelimit.chat.capacity", "1");
+        environment.setProperty("ratelimit.chat.per-second", "100");
+        filter = newFilter();
+
+        assertThat(status(chat("10.0.0.1"))).isEqualTo(200);
+        assertThat(status(chat("10.0.0.1"))).isEqualTo(429);
+        Thread.sleep(30);
+        assertThat(status(chat("10.0.0.1"))).isEqualTo(200);
+    }
+
+    @Test
+    void keepsSeparateBucketsPerClientAndRouteGroup() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            status(chat("10.0.0.1"));
+        }
+        assertThat(status(chat("10.0.0.1"))).isEqualTo(429);
+        assertThat(status(chat("10.0.0.2"))).isEqualTo(200);
+
+        MockHttpServletRequest catalog = new MockHttpServletRequest("GET", "/api/movies");
+        catalog.setRemoteAddr("10.0.0.1");
+        assertThat(status(catalog)).isEqualTo(200);
+    }
+
+    @Test
+    void keysAuthenticatedCallersByUserRatherThanAddress() throws Exception {
+        AuthenticatedUser user = new AuthenticatedUser(42L, "user@example.com", "User");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+
+        assertThat(status(chat("10.0.0.1"))).isEqualTo(200);
+        assertThat(status(chat("10.0.0.2"))).isEqualTo(200);
+        assertThat(status(chat("10.0.0.3"))).isEqualTo(200);
+        assertThat(status(chat("10.0.0.4"))).isEqualTo(429);
+    }
+
+    @Test
+    void leavesUnlimitedRoutesAlone() throws Exception {
+        MockHttpServletRequest bookings = new MockHttpServletRequest("POST", "/api/bookings");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(bookings, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("RateLimit-Limit")).isNull();
+    }
+
+    @Test
+    void passesEverythingWhenDisabled() throws Exception {
+        ReflectionTestUtils.setField(filter, "enabled", false);
+        for (int i = 0; i < 10; i++) {
+            assertThat(status(chat("10.0.0.1"))).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void evictsBucketsThatHaveRefilled() throws Exception {
+        environment.setProperty("ratelimit.catalog.per-second", "1000");
+        filter = newFilter();
+        MockHttpServletRequest catalog = new MockHttpServletRequest("GET", "/api/theaters");
+        catalog.setRemoteAddr("10.0.0.1");
+        status(catalog);
+        status(chat("10.0.0.1"));
+        Thread.sleep(10);
+
+        filter.evictIdle();
+
+        // The catalog bucket has refilled, the chat bucket still owes almost 1000 s
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(filter, "buckets")).hasSize(1);
+    }
+
+    private RateLimitFilter newFilter() {
+        RateLimitFilter rateLimitFilter = new RateLimitFilter(environment, new ClientAddressResolver());
+        ReflectionTestUtils.setField(rateLimitFilter, "enabled", true);
+        rateLimitFilter.loadBudgets();
+        return rateLimitFilter;
+    }
+
+    private int status(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest chat(String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/chat/public");
+        request.setRemoteAddr(address);
+        return request;
+    }
+}
@@ -0,0 +1,187 @@
+package com.moviebooking.service;
+
+import com.moviebooking.dto.response.TrendingHashtagResponse;
+import com.moviebooking.entity.supabase.Review;
+import com.moviebooking.event.ReviewChangedEvent;
+import com.moviebooking.repository.supabase.ReviewRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The Space-Saving top-K is checked against exact counts of the same skewed stream
+ */
+class HashtagTrendServiceTest {
+
+    private static final int GLOBAL_CAPACITY = 256;
+    private static final int MOVIE_CAPACITY = 32;
+    // Long enough that the few seconds a test takes do not decay anything measurably
+    private static final long FLAT_HALF_LIFE_HOURS = 1_000_000;
+
+    private final ReviewRepository reviewRepository = mock(ReviewRepository.class);
+
+    @Test
+    void topKMatchesExactCountsOnASkewedStream() {
+        HashtagTrendService service = service(FLAT_HALF_LIFE_HOURS);
+        Map<String, Map<String, Long>> exact = new HashMap<>();
+        post(service, exact, new Random(37), 30_000);
+
+        assertMatchesExactCounts(service, exact);
+    }
+
+    @Test
+    void landmarkRebaseKeepsScores() {
+        HashtagTrendService service = service(FLAT_HALF_LIFE_HOURS);
+        // Start ten half-lives after the landmark, so recorded weights are ~1024 and the rebase rescales them
+        long tenHalfLives = 10 * FLAT_HALF_LIFE_HOURS * 3_600_000L;
+        ReflectionTestUtils.setField(service, "landmarkMillis", System.currentTimeMillis() - tenHalfLives);
+        Map<String, Map<String, Long>> exact = new HashMap<>();
+        Random random = new Random(41);
+
+        post(service, exact, random, 15_000);
+        List<TrendingHashtagResponse> before = service.trendingGlobally(20);
+        service.rebaseLandmark();
+
+        assertThat(service.trendingGlobally(20)).zipSatisfy(before, (after, expected) -> {
+            assertThat(after.getHashtag()).isEqualTo(expected.getHashtag());
+            assertThat(after.getScore()).isCloseTo(expected.getScore(), within(0.011));
+            assertThat(after.getMinScore()).isCloseTo(expected.getMinScore(), within(0.011));
+        });
+
+        // Mentions recorded after the rebase weigh the same as those before it
+        post(service, exact, random, 15_000);
+        assertMatchesExactCounts(service, exact);
+    }
+
+    @Test
+    void olderMentionsWeighLessByHalfLife() {
+        LocalDateTime now = LocalDateTime.now();
+        when(reviewRepository.findHashtagsSince(any())).thenReturn(List.of(
+                new Object[]{"movie-1", List.of("classic"), now.minusHours(48)},
+                new Object[]{"movie-1", List.of("classic"), now.minusHours(24)},
+                new Object[]{"movie-1", List.of("sequel"), now}));
+        HashtagTrendService service = service(24);
+
+        service.bootstrap();
+
+        assertThat(service.trendingForMovie("movie-1", 5))
+                .extracting(TrendingHashtagResponse::getHashtag, TrendingHashtagResponse::getScore)
+                .containsExactly(
+                        tuple("#sequel", 1.0),
+                        tuple("#classic", 0.75));
+    }
+
+    @Test
+    void normalizesTagsAndCountsEachOncePerReview() {
+        HashtagTrendService service = service(FLAT_HALF_LIFE_HOURS);
+
+        service.onReviewChanged(created("movie-1", List.of("#Plot", "plot", " PLOT ", "##twist", "#", " ")));
+        service.onReviewChanged(created("movie-1", List.of("twist")));
+
+        assertThat(service.trendingForMovie("movie-1", 5))
+                .extracting(TrendingHashtagResponse::getHashtag, TrendingHashtagResponse::getScore)
+                .containsExactly(
+                        tuple("#twist", 2.0),
+                        tuple("#plot", 1.0));
+    }
+
+    @Test
+    void editsAreNotCounted() {
+        HashtagTrendService service = service(FLAT_HALF_LIFE_HOURS);
+        Review review = Review.builder().movieId("movie-1").hashtags(List.of("plot")).build();
+
+        service.onReviewChanged(new ReviewChangedEvent(review, 4, false));
+
+        assertThat(service.trendingForMovie("movie-1", 5)).isEmpty();
+        assertThat(service.trendingGlobally(5)).isEmpty();
+    }
+
+    private HashtagTrendService service(long halfLifeHours) {
+        HashtagTrendService service = new HashtagTrendService(reviewRepository);
+        ReflectionTestUtils.setField(service, "halfLifeHours", halfLifeHours);
+        return service;
+    }
+
+    /**
+     * Posts reviews to four movies, each carrying one to three tags drawn from a Zipf distribution
+     * over 600 tags, and keeps exact counts per movie and globally (under the null key)
+     */
+    private static void post(HashtagTrendService service, Map<String, Map<String, Long>> exact, Random random, int reviews) {
+        double[] cumulative = new double[600];
+        double total = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            total += 1.0 / Math.pow(i + 1, 1.2);
+            cumulative[i] = total;
+        }
+        for (int r = 0; r < reviews; r++) {
+            String movieId = "movie-" + random.nextInt(4);
+            Set<String> tags = new LinkedHashSet<>();
+            int count = 1 + random.nextInt(3);
+            for (int t = 0; t < count; t++) {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+                tags.add("tag" + (rank >= 0 ? rank : -rank - 1));
+            }
+            service.onReviewChanged(created(movieId, new ArrayList<>(tags)));
+            for (String tag : tags) {
+                exact.computeIfAbsent(movieId, id -> new HashMap<>()).merge(tag, 1L, Long::sum);
+                exact.computeIfAbsent(null, id -> new HashMap<>()).merge(tag, 1L, Long::sum);
+            }
+        }
+    }
+
+    private static void assertMatchesExactCounts(HashtagTrendService service, Map<String, Map<String, Long>> exact) {
+        for (Map.Entry<String, Map<String, Long>> tracker : exact.entrySet()) {
+            String movieId = tracker.getKey();
+            int capacity = movieId == null ? GLOBAL_CAPACITY : MOVIE_CAPACITY;
+            List<TrendingHashtagResponse> all = movieId == null
+                    ? service.trendingGlobally(capacity)
+                    : service.trendingForMovie(movieId, capacity);
+            Map<String, Long> counts = tracker.getValue();
+            long mentions = counts.values().stream().mapToLong(Long::longValue).sum();
+
+            // Every tracked tag's true count lies between its lower bound and its estimate
+            for (TrendingHashtagResponse entry : all) {
+                long count = counts.getOrDefault(entry.getHashtag().substring(1), 0L);
+                assertThat((double) count).as("%s in %s", entry.getHashtag(), movieId)
+                        .isBetween(entry.getMinScore() - 0.01, entry.getScore() + 0.01);
+            }
+
+            // Any tag above total / capacity is guaranteed a counter
+            Set<String> tracked = all.stream().map(e -> e.getHashtag().substring(1)).collect(Collectors.toSet());
+            counts.forEach((tag, count) -> {
+                if (count > (double) mentions / capacity) {
+                    assertThat(tracked).as("frequent tag %s in %s", tag, movieId).contains(tag);
+                }
+            });
+
+            // Estimates overshoot by at most total / capacity, so a top-10 tag that beats the 11th by more
+            // than that cannot be pushed out of the top 10
+            List<Map.Entry<String, Long>> ranked = counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .toList();
+            double margin = ranked.get(10).getValue() + (double) mentions / capacity;
+            List<String> clearWinners = ranked.subList(0, 10).stream()
+                    .filter(e -> e.getValue() > margin)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            assertThat(clearWinners).as("stream is skewed enough in %s", movieId).hasSizeGreaterThanOrEqualTo(3);
+            assertThat(all.subList(0, 10)).extracting(e -> e.getHashtag().substring(1))
+                    .as("top 10 in %s", movieId)
+                    .containsAll(clearWinners);
+        }
+    }
+
+    private static ReviewChangedEvent created(String movieId, List<String> hashtags) {
+        return new ReviewChangedEvent(Review.builder().movieId(movieId).hashtags(hashtags).build(), null, true);
+    }
+}
@@ -0,0 +1,362 @@
+package com.moviebooking.service;
+
+import com.moviebooking.dto.response.ShowSearchResponse;
+import com.moviebooking.entity.supabase.Movie;
+import com.moviebooking.entity.supabase.Show;
+import com.moviebooking.entity.supabase.Theater;
+import com.moviebooking.event.ShowChangedEvent;
+import com.moviebooking.repository.supabase.MovieRepository;
+import com.moviebooking.repository.supabase.ShowRepository;
+import com.moviebooking.repository.supabase.TheaterRepository;
+import com.moviebooking.service.ShowFacetService.Dimension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Search results and facet counts are checked against a naive filter over the same shows
+ */
+class ShowFacetServiceTest {
+
+    private static final List<String> CITIES = List.of("Mumbai", "Pune", "Delhi", "Chennai");
+    private static final List<String> LANGUAGES = List.of("Hindi", "English", "Tamil");
+    private static final List<String> FACILITIES = List.of("Parking", "Food Court", "Recliners", "Wheelchair");
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final ShowRepository showRepository = mock(ShowRepository.class);
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+    private final TheaterRepository theaterRepository = mock(TheaterRepository.class);
+    private final PricingService pricingService = mock(PricingService.class);
+
+    // What the database holds, by show id
+    private final Map<String, Show> database = new ConcurrentHashMap<>();  // also read by the compaction thread
+    private final Map<String, Theater> theaters = new HashMap<>();
+    private final Map<String, Movie> movies = new HashMap<>();
+    private ShowFacetService service;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(33);
+        for (int i = 0; i < 12; i++) {
+            List<String> facilities = new ArrayList<>();
+            for (String facility : FACILITIES) {
+                if (random.nextBoolean()) {
+                    facilities.add(facility);
+                }
+            }
+            theaters.put("theater-" + i, Theater.builder().id("theater-" + i).facilities(facilities).build());
+        }
+        for (int i = 0; i < 5; i++) {
+            movies.put("movie-" + i, Movie.builder().id("movie-" + i).build());
+        }
+
+        when(showRepository.findActiveFromDate(any())).thenAnswer(inv -> new ArrayList<>(database.values()));
+        when(movieRepository.findAllById(any())).thenAnswer(inv -> new ArrayList<>(movies.values()));
+        when(theaterRepository.findAllById(any())).thenAnswer(inv -> new ArrayList<>(theaters.values()));
+        when(movieRepository.findById(anyString())).thenAnswer(inv -> Optional.ofNullable(movies.get(inv.<String>getArgument(0))));
+        when(theaterRepository.findById(anyString())).thenAnswer(inv -> Optional.ofNullable(theaters.get(inv.<String>getArgument(0))));
+        // The price band follows the format, so every band is represented
+        when(pricingService.calculateSeatPrice(any(), any(), any())).thenAnswer(inv -> priceOf(inv.getArgument(0)));
+
+        service = new ShowFacetService(showRepository, movieRepository, theaterRepository, pricingService);
+        service.startCompactionExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stopCompactionExecutor();
+    }
+
+    @Test
+    void emptySelectionReturnsEveryShowWithFullFacets() {
+        Random random = new Random(1);
+        for (int i = 0; i < 50; i++) {
+            store(randomShow("show-" + i, random));
+        }
+        service.rebuild();
+
+        ShowSearchResponse response = service.search(Map.of(), 1_000);
+
+        assertThat(response.getTotal()).isEqualTo(50);
+        assertThat(response.getFacets()).isEqualTo(naiveFacets(Map.of()));
+    }
+
+    @Test
+    void searchMatchesNaiveFilter() {
+        Random random = new Random(2);
+        for (int i = 0; i < 400; i++) {
+            store(randomShow("show-" + i, random));
+        }
+        service.rebuild();
+
+        assertMatchesNaiveFilter(new Random(3), 300);
+    }
+
+    @Test
+    void filterValuesAreNormalizedLikeIndexedValues() {
+        Show show = randomShow("show-1", new Random(4));
+        show.setTheaterCity("Mumbai");
+        show.setLanguage("Hindi");
+        store(show);
+        service.rebuild();
+
+        ShowSearchResponse response = service.search(Map.of(
+                Dimension.CITY, List.of("MUMBAI"),
+                Dimension.LANGUAGE, List.of("hindi"),
+                Dimension.FORMAT, List.of(show.getFormat().name().toLowerCase())), 10);
+
+        assertThat(response.getShows()).extracting(Show::getId).containsExactly("show-1");
+    }
+
+    @Test
+    void hitsAreOrderedByStartAndLimited() {
+        Random random = new Random(5);
+        for (int i = 0; i < 40; i++) {
+            store(randomShow("show-" + i, random));
+        }
+        service.rebuild();
+
+        ShowSearchResponse response = service.search(Map.of(), 10);
+
+        assertThat(response.getTotal()).isEqualTo(40);
+        assertThat(response.getShows()).hasSize(10);
+        assertThat(response.getShows()).extracting(Show::getStartsAt).containsExactlyElementsOf(database.values().stream()
+                .map(Show::getStartsAt)
+                .sorted()
+                .limit(10)
+                .toList());
+    }
+
+    @Test
+    void incrementalChangesAndCompactionMatchNaiveFilter() throws InterruptedException {
+        Random random = new Random(6);
+        for (int i = 0; i < 200; i++) {
+            store(randomShow("show-" + i, random));
+        }
+        service.rebuild();
+
+        // Enough updates and removals to leave more than a quarter of the postings dead, so compaction runs
+        int nextId = 200;
+        for (int step = 0; step < 600; step++) {
+            List<String> ids = new ArrayList<>(database.keySet());
+            int action = random.nextInt(4);
+            if (action == 0 || ids.isEmpty()) {
+                Show show = randomShow("show-" + nextId++, random);
+                store(show);
+                service.onShowChanged(new ShowChangedEvent(show, false));
+            } else if (action == 1) {
+                // Re-posted with new values under the same id
+                Show show = randomShow(ids.get(random.nextInt(ids.size())), random);
+                store(show);
+                service.onShowChanged(new ShowChangedEvent(show, false));
+            } else if (action == 2) {
+                Show show = database.remove(ids.get(random.nextInt(ids.size())));
+                service.onShowChanged(new ShowChangedEvent(show, true));
+            } else {
+                // Deactivated or moved into the past: still a row, no longer searchable
+                Show show = randomShow(ids.get(random.nextInt(ids.size())), random);
+                if (random.nextBoolean()) {
+                    show.setIsActive(false);
+                } else {
+                    show.setShowDate(TODAY.minusDays(1));
+                }
+                database.remove(show.getId());
+                service.onShowChanged(new ShowChangedEvent(show, false));
+            }
+        }
+        awaitCompaction();
+
+        verify(showRepository, atLeast(2)).findActiveFromDate(any());
+        assertMatchesNaiveFilter(new Random(7), 200);
+    }
+
+    @Test
+    void changesDuringRebuildAreReplayedOntoTheNewIndex() {
+        Random random = new Random(8);
+        for (int i = 0; i < 20; i++) {
+            store(randomShow("show-" + i, random));
+        }
+        service.rebuild();
+
+        Show added = randomShow("show-added", random);
+        Show removed = database.get("show-3");
+        Show moved = randomShow("show-5", random);
+        moved.setTheaterCity(CITIES.get((CITIES.indexOf(database.get("show-5").getTheaterCity()) + 1) % CITIES.size()));
+
+        // The rebuild reads a snapshot from before the changes, which land while it is still reading
+        List<Show> stale = new ArrayList<>(database.values());
+        when(showRepository.findActiveFromDate(any())).thenAnswer(inv -> {
+            store(added);
+            database.remove(removed.getId());
+            store(moved);
+            service.onShowChanged(new ShowChangedEvent(added, false));
+            service.onShowChanged(new ShowChangedEvent(removed, true));
+            service.onShowChanged(new ShowChangedEvent(moved, false));
+            return stale;
+        });
+        service.rebuild();
+
+        ShowSearchResponse response = service.search(Map.of(), 1_000);
+        assertThat(response.getShows()).extracting(Show::getId)
+                .contains("show-added", "show-5")
+                .doesNotContain("show-3")
+                .hasSize(database.size());
+        assertThat(service.search(Map.of(Dimension.CITY, List.of(moved.getTheaterCity())), 1_000).getShows())
+                .extracting(Show::getId)
+                .contains("show-5");
+        assertThat(response.getFacets()).isEqualTo(naiveFacets(Map.of()));
+    }
+
+    private void assertMatchesNaiveFilter(Random random, int queries) {
+        for (int q = 0; q < queries; q++) {
+            Map<Dimension, Collection<String>> filters = randomFilters(random);
+
+            ShowSearchResponse response = service.search(filters, Integer.MAX_VALUE);
+
+            List<String> expected = database.values().stream()
+                    .filter(show -> matches(show, filters, null))
+                    .map(Show::getId)
+                    .toList();
+            assertThat(response.getShows()).extracting(Show::getId)
+                    .as("hits for %s", filters)
+                    .containsExactlyInAnyOrderElementsOf(expected);
+            assertThat(response.getTotal()).isEqualTo(expected.size());
+            assertThat(response.getFacets()).as("facets for %s", filters).isEqualTo(naiveFacets(filters));
+        }
+    }
+
+    /**
+     * A facet value counts the shows that pass every selected dimension except its own
+     */
+    private Map<String, Map<String, Long>> naiveFacets(Map<Dimension, Collection<String>> filters) {
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        for (Dimension d : Dimension.values()) {
+            Map<String, Long> counts = new HashMap<>();
+            for (Show show : database.values()) {
+                if (matches(show, filters, d)) {
+                    for (String value : valuesOf(show, d)) {
+                        counts.merge(value, 1L, Long::sum);
+                    }
+                }
+            }
+            facets.put(d.name(), counts);
+        }
+        return facets;
+    }
+
+    private boolean matches(Show show, Map<Dimension, Collection<String>> filters, Dimension ignored) {
+        for (Map.Entry<Dimension, Collection<String>> filter : filters.entrySet()) {
+            if (filter.getKey() == ignored || filter.getValue().isEmpty()) {
+                continue;
+            }
+            Set<String> values = valuesOf(show, filter.getKey());
+            if (filter.getValue().stream().noneMatch(v -> values.contains(normalize(filter.getKey(), v)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Set<String> valuesOf(Show show, Dimension dimension) {
+        return switch (dimension) {
+            case CITY -> Set.of(show.getTheaterCity().toLowerCase());
+            case DATE -> Set.of(show.getShowDate().toString());
+            case FORMAT -> Set.of(show.getFormat().name());
+            case LANGUAGE -> Set.of(show.getLanguage().toLowerCase());
+            case FACILITY -> new HashSet<>(theaters.get(show.getTheaterId()).getFacilities().stream()
+                    .map(String::toLowerCase)
+                    .toList());
+            case PRICE_BAND -> Set.of(ShowFacetService.PriceBand.of(priceOf(show)).name());
+            case TIME_OF_DAY -> Set.of(UpcomingShowIndex.TimeOfDay.of(show.getStartsAt().toLocalTime()).name());
+        };
+    }
+
+    private static String normalize(Dimension dimension, String value) {
+        return switch (dimension) {
+            case FORMAT, PRICE_BAND, TIME_OF_DAY -> value.toUpperCase();
+            case DATE -> value;
+            default -> value.toLowerCase();
+        };
+    }
+
+    private Map<Dimension, Collection<String>> randomFilters(Random random) {
+        Map<Dimension, Collection<String>> filters = new EnumMap<>(Dimension.class);
+        for (Dimension d : Dimension.values()) {
+            if (random.nextInt(3) != 0) {
+                continue;
+            }
+            List<String> domain = domainOf(d);
+            Set<String> picked = new HashSet<>();
+            int count = 1 + random.nextInt(2);
+            for (int i = 0; i < count; i++) {
+                picked.add(domain.get(random.nextInt(domain.size())));
+            }
+            filters.put(d, picked);
+        }
+        return filters;
+    }
+
+    private static List<String> domainOf(Dimension dimension) {
+        return switch (dimension) {
+            case CITY -> CITIES;
+            case DATE -> List.of(TODAY.toString(), TODAY.plusDays(1).toString(), TODAY.plusDays(2).toString());
+            case FORMAT -> Arrays.stream(Movie.MovieFormat.values()).map(Enum::name).toList();
+            case LANGUAGE -> LANGUAGES;
+            case FACILITY -> FACILITIES;
+            case PRICE_BAND -> Arrays.stream(ShowFacetService.PriceBand.values()).map(Enum::name).toList();
+            case TIME_OF_DAY -> Arrays.stream(UpcomingShowIndex.TimeOfDay.values()).map(Enum::name).toList();
+        };
+    }
+
+    private Show randomShow(String id, Random random) {
+        LocalDate date = TODAY.plusDays(random.nextInt(3));
+        LocalDateTime startsAt = date.atTime(random.nextInt(24), 15 * random.nextInt(4));
+        return Show.builder()
+                .id(id)
+                .movieId("movie-" + random.nextInt(movies.size()))
+                .theaterId("theater-" + random.nextInt(theaters.size()))
+                .theaterCity(CITIES.get(random.nextInt(CITIES.size())))
+                .showDate(date)
+                .startsAt(startsAt)
+                .format(Movie.MovieFormat.values()[random.nextInt(Movie.MovieFormat.values().length)])
+                .language(LANGUAGES.get(random.nextInt(LANGUAGES.size())))
+                .isActive(true)
+                .build();
+    }
+
+    private void store(Show show) {
+        database.put(show.getId(), show);
+    }
+
+    private static BigDecimal priceOf(Show show) {
+        return switch (show.getFormat()) {
+            case STANDARD_2D -> new BigDecimal("150");
+            case STANDARD_3D, DOLBY_ATMOS -> new BigDecimal("250");
+            case IMAX_2D, IMAX_3D -> new BigDecimal("400");
+            case FOUR_DX -> new BigDecimal("600");
+        };
+    }
+
+    private void awaitCompaction() throws InterruptedException {
+        service.stopCompactionExecutor();
+        ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(service, "compactionExecutor");
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,155 @@
+package com.moviebooking.service;
+
+import com.moviebooking.entity.supabase.Movie;
+import com.moviebooking.entity.supabase.Theater;
+import com.moviebooking.repository.supabase.TheaterRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The k-d tree answers are checked against a brute-force scan over the same theaters
+ */
+class TheaterGeoIndexServiceTest {
+
+    @Test
+    void emptyIndexFindsNothing() {
+        TheaterGeoIndexService service = serviceWith(List.of());
+
+        assertThat(service.findNearest(19.07, 72.87, 5, null, null)).isEmpty();
+        assertThat(service.findWithinRadius(19.07, 72.87, 50, 10, null, null)).isEmpty();
+    }
+
+    @Test
+    void skipsTheatersWithoutCoordinates() {
+        Theater located = theater("located", 19.0, 72.8);
+        Theater unlocated = Theater.builder().id("unlocated").build();
+        TheaterGeoIndexService service = serviceWith(List.of(located, unlocated));
+
+        assertThat(service.findNearest(19.0, 72.8, 5, null, null))
+                .extracting(n -> n.theater().getId())
+                .containsExactly("located");
+    }
+
+    @Test
+    void nearestMatchesBruteForce() {
+        List<Theater> theaters = randomTheaters(2_000, new Random(29));
+        TheaterGeoIndexService service = serviceWith(theaters);
+        Random queries = new Random(7);
+
+        for (int q = 0; q < 200; q++) {
+            double lat = -60 + queries.nextDouble() * 120;
+            double lng = -180 + queries.nextDouble() * 360;
+            int k = 1 + queries.nextInt(10);
+
+            List<TheaterGeoIndexService.NearbyTheater> found = service.findNearest(lat, lng, k, null, null);
+            List<Double> expected = bruteForce(theaters, lat, lng, Double.POSITIVE_INFINITY).stream()
+                    .limit(k)
+                    .toList();
+
+            assertThat(found).hasSize(k);
+            for (int i = 0; i < k; i++) {
+                assertThat(found.get(i).distanceKm()).isCloseTo(expected.get(i), within(1e-9));
+            }
+        }
+    }
+
+    @Test
+    void withinRadiusMatchesBruteForceClosestFirst() {
+        List<Theater> theaters = randomTheaters(2_000, new Random(31));
+        TheaterGeoIndexService service = serviceWith(theaters);
+        Random queries = new Random(11);
+
+        for (int q = 0; q < 200; q++) {
+            double lat = -60 + queries.nextDouble() * 120;
+            double lng = -180 + queries.nextDouble() * 360;
+            double radiusKm = 100 + queries.nextDouble() * 2_000;
+
+            List<TheaterGeoIndexService.NearbyTheater> found =
+                    service.findWithinRadius(lat, lng, radiusKm, Integer.MAX_VALUE, null, null);
+            List<Double> expected = bruteForce(theaters, lat, lng, radiusKm);
+
+            assertThat(found).extracting(TheaterGeoIndexService.NearbyTheater::distanceKm)
+                    .isSortedAccordingTo(Comparator.naturalOrder())
+                    .allSatisfy(d -> assertThat(d).isLessThanOrEqualTo(radiusKm));
+            assertThat(found).hasSameSizeAs(expected);
+        }
+    }
+
+    @Test
+    void findsNeighboursAcrossTheAntimeridian() {
+        // Enough western theaters that the eastern one ends up across a longitude split
+        TheaterGeoIndexService service = serviceWith(List.of(
+                theater("east", 0, 179.9), theater("far-east", 0, 170.0),
+                theater("w1", 0, -170.0), theater("w2", 0, -150.0), theater("w3", 0, -120.0),
+                theater("w4", 5, -100.0), theater("w5", -5, -140.0)));
+
+        // 0.2 degrees of longitude at the equator, about 22 km, across the date line
+        List<TheaterGeoIndexService.NearbyTheater> found = service.findWithinRadius(0, -179.9, 50, 5, null, null);
+
+        assertThat(found).extracting(n -> n.theater().getId()).containsExactly("east");
+        assertThat(found.get(0).distanceKm()).isCloseTo(22.2, within(0.5));
+    }
+
+    @Test
+    void appliesFacilityAndFormatFilters() {
+        Theater plain = theater("plain", 19.00, 72.80);
+        Theater parking = theater("parking", 19.05, 72.85);
+        parking.setFacilities(List.of("Parking", "Food Court"));
+        Theater imax = theater("imax", 19.10, 72.90);
+        imax.setScreens(List.of(Theater.Screen.builder().formats(List.of(Movie.MovieFormat.IMAX_2D)).build()));
+        TheaterGeoIndexService service = serviceWith(List.of(plain, parking, imax));
+
+        assertThat(service.findNearest(19.0, 72.8, 3, "parking", null))
+                .extracting(n -> n.theater().getId())
+                .containsExactly("parking");
+        assertThat(service.findNearest(19.0, 72.8, 3, null, Movie.MovieFormat.IMAX_2D))
+                .extracting(n -> n.theater().getId())
+                .containsExactly("imax");
+    }
+
+    @Test
+    void rejectsNonPositiveLimitsAndRadii() {
+        TheaterGeoIndexService service = serviceWith(List.of(theater("t", 19.0, 72.8)));
+
+        assertThat(service.findNearest(19.0, 72.8, 0, null, null)).isEmpty();
+        assertThat(service.findWithinRadius(19.0, 72.8, 0, 5, null, null)).isEmpty();
+        assertThat(service.findWithinRadius(19.0, 72.8, 10, 0, null, null)).isEmpty();
+    }
+
+    private static TheaterGeoIndexService serviceWith(List<Theater> theaters) {
+        TheaterRepository repository = mock(TheaterRepository.class);
+        when(repository.findAll()).thenReturn(theaters);
+        TheaterGeoIndexService service = new TheaterGeoIndexService(repository);
+        service.rebuild();
+        return service;
+    }
+
+    private static List<Double> bruteForce(List<Theater> theaters, double lat, double lng, double maxKm) {
+        return theaters.stream()
+                .map(t -> TheaterGeoIndexService.haversineKm(lat, lng, t.getLatitude(), t.getLongitude()))
+                .filter(d -> d <= maxKm)
+                .sorted()
+                .toList();
+    }
+
+    private static List<Theater> randomTheaters(int count, Random random) {
+        List<Theater> theaters = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            theaters.add(theater("t" + i, -70 + random.nextDouble() * 140, -180 + random.nextDouble() * 360));
+        }
+        return theaters;
+    }
+
+    private static Theater theater(String id, double lat, double lng) {
+        return Theater.builder().id(id).name(id).latitude(lat).longitude(lng).build();
+    }
+}
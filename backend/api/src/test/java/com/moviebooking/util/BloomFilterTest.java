@@ -0,0 +1,88 @@
+package com.moviebooking.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void putReportsWhetherTheKeyWasNew() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        assertThat(filter.put("review:1:user:7")).isTrue();
+        assertThat(filter.put("review:1:user:7")).isFalse();
+        assertThat(filter.mightContain("review:1:user:7")).isTrue();
+    }
+
+    @Test
+    void hasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("key-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("key-" + i)).as("key-%d", i).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("present-" + i);
+        }
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("absent-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+
+    @Test
+    void sizesTheBitArrayFromTheExpectedInsertions() {
+        // -n ln p / (ln 2)^2 is about 9.6 bits per key at 1%
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        assertThat(filter.bitSize()).isBetween(9_585L, 9_585L + 64);
+        assertThat(filter.bitSize() % 64).isZero();
+
+        assertThat(new BloomFilter(0, 0.01).bitSize()).isEqualTo(64);
+    }
+
+    @Test
+    void concurrentPutsOfANewKeyReportItAsNewAtLeastOnce() throws Exception {
+        BloomFilter filter = new BloomFilter(100_000, 0.001);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            for (int k = 0; k < 200; k++) {
+                String key = "concurrent-" + k;
+                AtomicInteger firsts = new AtomicInteger();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < 8; t++) {
+                    futures.add(pool.submit(() -> {
+                        if (filter.put(key)) {
+                            firsts.incrementAndGet();
+                        }
+                    }));
+                }
+                for (Future<?> f : futures) {
+                    f.get();
+                }
+                assertThat(filter.mightContain(key)).isTrue();
+                assertThat(firsts.get()).isGreaterThanOrEqualTo(1);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
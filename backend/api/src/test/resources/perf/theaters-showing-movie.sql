@@ -0,0 +1,153 @@
+-- EXPLAIN ANALYZE comparison for TheaterRepository.findTheatersShowingMovie.
+--
+-- Seeds a scratch schema with a synthetic catalog, builds the same indexes the application
+-- declares, then plans and runs the old lookup (all shows for the movie, then theaters by id,
+-- with the city filtered in Java) next to the semi-joins that replaced it. The semi-joins are
+-- the repository's statements, prepared with bound parameters and run under both custom and
+-- generic plans, next to the single catch-all form with NULL parameters that they replaced.
+-- Everything happens in one transaction that is rolled back, so it is safe to point at a
+-- development database:
+--
+--   psql "$SUPABASE_DB_URL" -v ON_ERROR_STOP=1 -f src/test/resources/perf/theaters-showing-movie.sql
+--
+-- Sizes can be overridden, e.g. -v theaters=5000 -v shows=2000000
+
+\set ON_ERROR_STOP on
+\if :{?theaters}
+\else
+    \set theaters 2000
+\endif
+\if :{?cities}
+\else
+    \set cities 40
+\endif
+\if :{?movies}
+\else
+    \set movies 200
+\endif
+\if :{?shows}
+\else
+    \set shows 500000
+\endif
+\set movie_id 'movie-7'
+\set city 'city-3'
+\set show_date '2026-01-15'
+
+BEGIN;
+CREATE SCHEMA perf_theaters;
+SET LOCAL search_path = perf_theaters;
+SELECT setseed(0.42);
+
+CREATE TABLE theaters (
+    id   varchar(255) PRIMARY KEY,
+    name varchar(255),
+    city varchar(255)
+);
+
+CREATE TABLE shows (
+    id          varchar(255) PRIMARY KEY,
+    movie_id    varchar(255),
+    theater_id  varchar(255),
+    show_date   date,
+    is_active   boolean
+);
+
+INSERT INTO theaters
+SELECT 'theater-' || i, 'Theater ' || i, initcap('city-' || (i % :cities))
+FROM generate_series(1, :theaters) AS i;
+
+-- Show dates span 30 days; a popular movie gets proportionally more shows
+INSERT INTO shows
+SELECT 'show-' || i,
+       'movie-' || floor(power(random(), 2) * :movies)::int,
+       'theater-' || (1 + floor(random() * :theaters)::int),
+       DATE '2026-01-01' + floor(random() * 30)::int,
+       random() < 0.95
+FROM generate_series(1, :shows) AS i;
+
+-- Indexes as declared on the entities and in db/indexes.sql
+CREATE INDEX idx_shows_movie_date_theater ON shows (movie_id, show_date, theater_id);
+CREATE INDEX idx_theaters_city_lower ON theaters (LOWER(city));
+ANALYZE theaters;
+ANALYZE shows;
+
+\echo
+\echo '=== Old: every show for the movie on the date, shipped to the application ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM shows WHERE movie_id = :'movie_id' AND show_date = :'show_date' AND is_active = true;
+
+SELECT array_agg(DISTINCT theater_id) AS theater_ids
+FROM shows WHERE movie_id = :'movie_id' AND show_date = :'show_date' AND is_active = true \gset
+
+\echo '=== Old: theaters by id (the city was then filtered in Java) ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM theaters WHERE id = ANY (:'theater_ids'::varchar[]);
+
+\echo '=== Old, no date: every show the movie has ever had ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM shows WHERE movie_id = :'movie_id';
+
+\echo
+\echo '=== New: the statements TheaterRepository sends, prepared with bound parameters ==='
+\echo '=== Each runs under a custom and a generic plan; the JDBC driver switches to server-side'
+\echo '=== prepared statements after a few executions, and Postgres may then settle on the generic plan'
+
+PREPARE in_city_on_date(varchar, date, varchar) AS
+SELECT t.* FROM theaters t
+WHERE LOWER(t.city) = LOWER($3)
+  AND EXISTS (SELECT 1 FROM shows s WHERE s.theater_id = t.id AND s.movie_id = $1
+              AND s.show_date = $2 AND s.is_active = true);
+
+PREPARE on_date(varchar, date) AS
+SELECT t.* FROM theaters t
+WHERE EXISTS (SELECT 1 FROM shows s WHERE s.theater_id = t.id AND s.movie_id = $1
+              AND s.show_date = $2 AND s.is_active = true);
+
+PREPARE in_city(varchar, varchar) AS
+SELECT t.* FROM theaters t
+WHERE LOWER(t.city) = LOWER($2)
+  AND EXISTS (SELECT 1 FROM shows s WHERE s.theater_id = t.id AND s.movie_id = $1);
+
+PREPARE any_day_anywhere(varchar) AS
+SELECT t.* FROM theaters t
+WHERE EXISTS (SELECT 1 FROM shows s WHERE s.theater_id = t.id AND s.movie_id = $1);
+
+-- The single catch-all statement the four above replaced, for comparison
+PREPARE catch_all(varchar, date, varchar) AS
+SELECT t.* FROM theaters t
+WHERE ($3::varchar IS NULL OR LOWER(t.city) = LOWER($3))
+  AND EXISTS (SELECT 1 FROM shows s WHERE s.theater_id = t.id AND s.movie_id = $1
+              AND ($2::date IS NULL OR (s.show_date = $2 AND s.is_active = true)));
+
+SET LOCAL plan_cache_mode = force_custom_plan;
+\echo '--- custom plans ---'
+\echo '=== city and date ==='
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE in_city_on_date(:'movie_id', :'show_date', :'city');
+\echo '=== date only ==='
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE on_date(:'movie_id', :'show_date');
+\echo '=== city only ==='
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE in_city(:'movie_id', :'city');
+\echo '=== neither ==='
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE any_day_anywhere(:'movie_id');
+
+SET LOCAL plan_cache_mode = force_generic_plan;
+\echo '--- generic plans ---'
+\echo '=== city and date ==='
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE in_city_on_date(:'movie_id', :'show_date', :'city');
+\echo '=== date only ==='
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE on_date(:'movie_id', :'show_date');
+\echo '=== city only ==='
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE in_city(:'movie_id', :'city');
+\echo '=== neither ==='
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE any_day_anywhere(:'movie_id');
+
+\echo
+\echo '=== Before the split: one catch-all statement, generic plan, with and without NULLs ==='
+\echo '=== city and date ==='
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE catch_all(:'movie_id', :'show_date', :'city');
+\echo '=== NULL date ==='
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE catch_all(:'movie_id', NULL, :'city');
+\echo '=== NULL city and date ==='
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE catch_all(:'movie_id', NULL, NULL);
+
+ROLLBACK;
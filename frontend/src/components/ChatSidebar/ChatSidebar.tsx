@@ -95,16 +95,82 @@ export default function ChatSidebar() {
     setInput("");
     setIsLoading(true);
 
+    const aiMessageId = (Date.now() + 1).toString();
+    let streamed = false;
+
+    try {
+      // Show the reply as it is generated; the typing indicator goes away with the first chunk
+      const reply = await chatService.streamMessage(
+        sessionId,
+        userMessage.content,
+        isAuthenticated,
+        (text) => {
+          if (!streamed) {
+            streamed = true;
+            setIsLoading(false);
+            setMessages((prev) => [
+              ...prev,
+              {
+                id: aiMessageId,
+                role: "assistant",
+                content: text,
+                timestamp: new Date(),
+              },
+            ]);
+          } else {
+            setMessages((prev) =>
+              prev.map((m) =>
+                m.id === aiMessageId ? { ...m, content: m.content + text } : m,
+              ),
+            );
+          }
+        },
+      );
+
+      if (!streamed) {
+        // Nothing was streamed (e.g. the reply was an error message), so show it whole
+        setMessages((prev) => [
+          ...prev,
+          {
+            id: aiMessageId,
+            role: "assistant",
+            content: reply,
+            timestamp: new Date(),
+          },
+        ]);
+      } else {
+        // Use the final text in case the stream ended with an error message
+        setMessages((prev) =>
+          prev.map((m) =>
+            m.id === aiMessageId ? { ...m, content: reply } : m,
+          ),
+        );
+      }
+
+      if (isSpeaking) {
+        speak(reply);
+      }
+    } catch (streamError) {
+      if (streamed) {
+        // Keep the partial reply already on screen
+        console.error("Chat stream interrupted:", streamError);
+        return;
+      }
+      // Streaming unavailable: fall back to the request/response endpoint
+      await sendWithoutStreaming(userMessage.content, aiMessageId);
+    } finally {
+      setIsLoading(false);
+    }
+  };
+
+  const sendWithoutStreaming = async (content: string, aiMessageId: string) => {
     try {
       const response = isAuthenticated
-        ? await chatService.sendAuthenticatedMessage(
-            sessionId,
-            userMessage.content,
-          )
-        : await chatService.sendPublicMessage(sessionId, userMessage.content);
+        ? await chatService.sendAuthenticatedMessage(sessionId!, content)
+        : await chatService.sendPublicMessage(sessionId!, content);
 
       const aiMessage: ChatMessage = {
-        id: (Date.now() + 1).toString(),
+        id: aiMessageId,
         role: "assistant",
         content: response.response,
         timestamp: new Date(),
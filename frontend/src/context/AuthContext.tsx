@@ -85,6 +85,10 @@ export function AuthProvider({ children }: { children: ReactNode }) {
   };
 
   const logout = () => {
+    if (token) {
+      // Revoke server-side too; the local session ends either way
+      authService.logout(token).catch(() => {});
+    }
     localStorage.removeItem("token");
     setToken(null);
     setUser(null);
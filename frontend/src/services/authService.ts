@@ -23,6 +23,12 @@ export const authService = {
     return response.data;
   },
 
+  logout: async (token: string): Promise<void> => {
+    await api.post("/auth/logout", null, {
+      headers: { Authorization: `Bearer ${token}` },
+    });
+  },
+
   getProfile: async (token: string): Promise<User> => {
     const response = await api.get<User>("/user/profile", {
       headers: { Authorization: `Bearer ${token}` },
@@ -30,4 +30,78 @@ export const chatService = {
     );
     return response.data;
   },
+
+  /**
+   * Send a message and receive the reply as server-sent events. onToken is
+   * called with each chunk as it arrives; resolves with the full reply.
+   */
+  streamMessage: async (
+    sessionId: string,
+    message: string,
+    authenticated: boolean,
+    onToken: (text: string) => void,
+  ): Promise<string> => {
+    const path = authenticated
+      ? "/chat/authenticated/stream"
+      : "/chat/public/stream";
+    const headers: Record<string, string> = {
+      "Content-Type": "application/json",
+      Accept: "text/event-stream",
+    };
+    const token = localStorage.getItem("token");
+    if (token) {
+      headers.Authorization = `Bearer ${token}`;
+    }
+
+    const response = await fetch(
+      `${api.defaults.baseURL}${path}?sessionId=${encodeURIComponent(sessionId)}`,
+      { method: "POST", headers, body: JSON.stringify({ message }) },
+    );
+    if (!response.ok || !response.body) {
+      throw new Error(`Chat stream failed with status ${response.status}`);
+    }
+
+    const reader = response.body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = "";
+    let reply = "";
+
+    // Events are separated by a blank line; each carries an event name and JSON data
+    const handleEvent = (raw: string) => {
+      let event = "message";
+      const data: string[] = [];
+      for (const line of raw.split("\n")) {
+        if (line.startsWith("event:")) {
+          event = line.slice(6).trim();
+        } else if (line.startsWith("data:")) {
+          data.push(line.slice(5));
+        }
+      }
+      if (data.length === 0) return;
+      const payload = JSON.parse(data.join("\n"));
+      if (event === "token") {
+        reply += payload.text;
+        onToken(payload.text);
+      } else if (event === "error") {
+        // Keep what was already streamed and add the note under it, as the server logs it
+        reply = reply ? `${reply}\n\n${payload.message}` : payload.message;
+      }
+    };
+
+    for (;;) {
+      const { done, value } = await reader.read();
+      if (done) break;
+      buffer += decoder.decode(value, { stream: true }).replace(/\r\n?/g, "\n");
+      let boundary = buffer.indexOf("\n\n");
+      while (boundary >= 0) {
+        handleEvent(buffer.slice(0, boundary));
+        buffer = buffer.slice(boundary + 2);
+        boundary = buffer.indexOf("\n\n");
+      }
+    }
+    if (buffer.trim()) {
+      handleEvent(buffer);
+    }
+    return reply;
+  },
 };
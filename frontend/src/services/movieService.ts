@@ -113,8 +113,8 @@ export const movieService = {
     return response.data;
   },
 
-  likeReview: async (reviewId: string): Promise<Review> => {
-    const response = await api.put<Review>(`/reviews/${reviewId}/like`);
+  likeReview: async (reviewId: string): Promise<{ id: string; counted: boolean }> => {
+    const response = await api.put<{ id: string; counted: boolean }>(`/reviews/${reviewId}/like`);
     return response.data;
   },
 };